@@ -0,0 +1,190 @@
+package com.drivesmart.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.google.javascript.jscomp.CommandLineRunner;
+import com.google.javascript.jscomp.CompilationLevel;
+import com.google.javascript.jscomp.Compiler;
+import com.google.javascript.jscomp.CompilerOptions;
+import com.google.javascript.jscomp.Result;
+import com.google.javascript.jscomp.SourceFile;
+
+/**
+ * Build step over the static directory copied into target/classes: minifies CSS and JS
+ * in place, then writes a .gz and a .br next to every text asset for the resource chain
+ * to serve as-is. Run by the asset-pipeline execution in pom.xml as a single-file
+ * program, so none of it ships in the application. Fingerprinting happens at runtime,
+ * from the content of these built files (see StaticAssetsConfig).
+ */
+public final class StaticAssetPipeline {
+
+    private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "json", "svg", "txt", "html");
+
+    // Encodings that save less than this are not worth a second file
+    private static final double MIN_SAVING = 0.05;
+
+    private StaticAssetPipeline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: StaticAssetPipeline <static directory>");
+        }
+        Path root = Path.of(args[0]);
+        if (!Files.isDirectory(root)) {
+            System.out.println("[asset-pipeline] No static directory at " + root);
+            return;
+        }
+        boolean brotli = Brotli4jLoader.isAvailable();
+        if (!brotli) {
+            System.out.println("[asset-pipeline] WARNING: no brotli native library for this platform, writing gzip only ("
+                    + Brotli4jLoader.getUnavailabilityCause() + ")");
+        }
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(root)) {
+            assets = files.filter(Files::isRegularFile)
+                    .filter(file -> COMPRESSIBLE.contains(extension(file)))
+                    .toList();
+        }
+        long before = 0;
+        long after = 0;
+        int built = 0;
+        for (Path asset : assets) {
+            if (upToDate(asset)) {
+                continue;
+            }
+            built++;
+            byte[] original = Files.readAllBytes(asset);
+            byte[] minified = switch (extension(asset)) {
+                case "css" -> minifyCss(new String(original, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+                case "js" -> minifyJs(asset, new String(original, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+                default -> original;
+            };
+            if (minified != original) {
+                Files.write(asset, minified);
+            }
+            byte[] gzip = gzip(minified);
+            byte[] br = brotli ? brotli(minified) : null;
+            writeIfSmaller(asset, ".gz", minified.length, gzip);
+            writeIfSmaller(asset, ".br", minified.length, br);
+            before += original.length;
+            after += br != null ? Math.min(br.length, gzip.length) : gzip.length;
+            System.out.printf("[asset-pipeline] %s: %d -> %d bytes, gzip %d, brotli %s%n", root.relativize(asset),
+                    original.length, minified.length, gzip.length, br != null ? br.length : "-");
+        }
+        System.out.printf("[asset-pipeline] %d of %d assets built, %d -> %d bytes on the wire%n",
+                built, assets.size(), before, after);
+    }
+
+    // The resources plugin only copies a source newer than its copy, so a variant newer than the
+    // copy means this asset was already minified and compressed by an earlier build
+    private static boolean upToDate(Path asset) throws IOException {
+        Path gzip = asset.resolveSibling(asset.getFileName() + ".gz");
+        return Files.exists(gzip)
+                && Files.getLastModifiedTime(gzip).compareTo(Files.getLastModifiedTime(asset)) >= 0;
+    }
+
+    // Comments and whitespace only; spacing that can carry meaning (descendant selectors, calc operands) is kept
+    static String minifyCss(String css) {
+        StringBuilder out = new StringBuilder(css.length());
+        int i = 0;
+        while (i < css.length()) {
+            char c = css.charAt(i);
+            if (c == '/' && i + 1 < css.length() && css.charAt(i + 1) == '*') {
+                int end = css.indexOf("*/", i + 2);
+                i = end < 0 ? css.length() : end + 2;
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                int end = i + 1;
+                while (end < css.length() && css.charAt(end) != c) {
+                    end += css.charAt(end) == '\\' ? 2 : 1;
+                }
+                end = Math.min(end + 1, css.length());
+                out.append(css, i, end);
+                i = end;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                while (i < css.length() && Character.isWhitespace(css.charAt(i))) {
+                    i++;
+                }
+                char previous = out.length() > 0 ? out.charAt(out.length() - 1) : '{';
+                char next = i < css.length() ? css.charAt(i) : '}';
+                if ("{};,>: ".indexOf(previous) < 0 && "{};,>!".indexOf(next) < 0) {
+                    out.append(' ');
+                }
+                continue;
+            }
+            if (c == '}' && out.length() > 0 && out.charAt(out.length() - 1) == ';') {
+                out.setLength(out.length() - 1);
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+
+    // Closure Compiler's simple mode: locals renamed and dead code dropped; globals the templates call are kept
+    static String minifyJs(Path file, String js) throws IOException {
+        CompilerOptions options = new CompilerOptions();
+        CompilationLevel.SIMPLE_OPTIMIZATIONS.setOptionsForCompilationLevel(options);
+        options.setLanguageIn(CompilerOptions.LanguageMode.STABLE_IN);
+        options.setLanguageOut(CompilerOptions.LanguageMode.NO_TRANSPILE);
+        options.setEmitUseStrict(false);
+        Compiler compiler = new Compiler(System.err);
+        Result result = compiler.compile(
+                CommandLineRunner.getBuiltinExterns(CompilerOptions.Environment.BROWSER),
+                List.of(SourceFile.fromCode(file.getFileName().toString(), js)),
+                options);
+        if (!result.success) {
+            throw new IllegalStateException("Could not minify " + file + ": " + List.of(result.errors));
+        }
+        return compiler.toSource();
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (OutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] brotli(byte[] data) throws IOException {
+        return Encoder.compress(data, new Encoder.Parameters().setQuality(11).setMode(Encoder.Mode.TEXT));
+    }
+
+    // A stale variant from an earlier build must not outlive its source, so it is removed rather than kept
+    private static void writeIfSmaller(Path asset, String suffix, int size, byte[] encoded) throws IOException {
+        Path target = asset.resolveSibling(asset.getFileName() + suffix);
+        if (encoded != null && encoded.length < size * (1 - MIN_SAVING)) {
+            Files.write(target, encoded);
+        } else {
+            Files.deleteIfExists(target);
+        }
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
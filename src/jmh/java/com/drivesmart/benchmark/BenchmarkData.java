@@ -0,0 +1,125 @@
+package com.drivesmart.benchmark;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.drivesmart.entity.AuditLevel;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+
+/**
+ * Seeds the benchmark database with JDBC batches, bypassing JPA so that even
+ * millions of bookings load in reasonable time. Data is random but reproducible.
+ */
+final class BenchmarkData {
+
+    static final String[] BRANDS = {"Toyota", "Honda", "Ford", "BMW", "Audi", "Kia", "Hyundai", "Tesla", "Mazda", "Volvo"};
+    static final String[] COLORS = {"Black", "White", "Silver", "Blue", "Red", "Grey"};
+
+    private static final int BATCH = 10_000;
+
+    // Roughly how a real book looks: most bookings are finished, a few are open
+    private static final BookingStatus[] STATUS_MIX = {
+            BookingStatus.COMPLETED, BookingStatus.COMPLETED, BookingStatus.COMPLETED, BookingStatus.COMPLETED,
+            BookingStatus.CANCELLED, BookingStatus.CONFIRMED, BookingStatus.CONFIRMED, BookingStatus.ACTIVE,
+            BookingStatus.PENDING, BookingStatus.COMPLETED};
+
+    private static final AuditLevel[] LEVEL_MIX = {
+            AuditLevel.SUCCESS, AuditLevel.SUCCESS, AuditLevel.SUCCESS, AuditLevel.WARNING, AuditLevel.DANGER};
+
+    private final JdbcTemplate jdbc;
+    private final Random random = new Random(42);
+
+    BenchmarkData(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    long insertUser() {
+        return insertUser("bench@drivesmart.com");
+    }
+
+    long insertUser(String email) {
+        jdbc.update("INSERT INTO users (email, password, full_name, phone_number, role, is_active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                email, "{noop}bench", "Benchmark User", "+1000000000", "CUSTOMER", true,
+                Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()));
+        return jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+    }
+
+    // Explicit ids above the current maximum, then cars_seq moved past them as CarIdSequence would
+    void insertCars(int count) {
+        long firstId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cars", Long.class) + 1;
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Object[] {
+                    firstId + i, BRANDS[i % BRANDS.length], "Model " + (i % 97), "BENCH-" + i, 2010 + i % 15,
+                    COLORS[i % COLORS.length], 30.0 + random.nextInt(170), true, i % 50 == 0});
+            if (batch.size() == BATCH) {
+                flushCars(batch);
+            }
+        }
+        flushCars(batch);
+        jdbc.execute("ALTER SEQUENCE cars_seq RESTART WITH " + (firstId + count + Car.ID_ALLOCATION_SIZE));
+    }
+
+    // Starts within a year either side of today, one to fourteen days long
+    void insertBookings(long userId, int cars, long count) {
+        List<Long> carIds = jdbc.queryForList("SELECT id FROM cars ORDER BY id", Long.class);
+        LocalDate today = LocalDate.now();
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (long i = 0; i < count; i++) {
+            LocalDate start = today.plusDays(random.nextInt(730) - 365);
+            int days = 1 + random.nextInt(14);
+            batch.add(new Object[] {
+                    userId, carIds.get(random.nextInt(Math.min(cars, carIds.size()))),
+                    Date.valueOf(start), Date.valueOf(start.plusDays(days - 1)), days * 55.0,
+                    STATUS_MIX[random.nextInt(STATUS_MIX.length)].name(),
+                    Timestamp.valueOf(start.atStartOfDay().minusDays(7))});
+            if (batch.size() == BATCH) {
+                flushBookings(batch);
+            }
+        }
+        flushBookings(batch);
+    }
+
+    void insertAuditLogs(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < count; i++) {
+            AuditLevel level = LEVEL_MIX[random.nextInt(LEVEL_MIX.length)];
+            batch.add(new Object[] {
+                    Timestamp.valueOf(now.minusSeconds(count - i)), "user" + (i % 25) + "@drivesmart.com",
+                    level == AuditLevel.SUCCESS ? "BOOKING_CREATED" : "LOGIN_FAILED",
+                    "Benchmark event " + i + " for car BENCH-" + (i % 1000), "10.0.0." + (i % 255), level.name()});
+            if (batch.size() == BATCH) {
+                flushAuditLogs(batch);
+            }
+        }
+        flushAuditLogs(batch);
+    }
+
+    private void flushCars(List<Object[]> batch) {
+        jdbc.batchUpdate("INSERT INTO cars (id, brand, model, license_plate, \"year\", color, price_per_day, is_available, in_maintenance) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private void flushBookings(List<Object[]> batch) {
+        jdbc.batchUpdate("INSERT INTO bookings (user_id, car_id, start_date, end_date, total_price, status, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private void flushAuditLogs(List<Object[]> batch) {
+        jdbc.batchUpdate("INSERT INTO audit_logs (timestamp, username, action, details, ip, level) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,179 @@
+package com.drivesmart.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.drivesmart.DriveSmart2Application;
+import com.drivesmart.service.BookingIntervalIndex;
+import com.drivesmart.service.BookingRollupService;
+import com.drivesmart.service.CarSearchIndex;
+import com.drivesmart.service.RecentBookingsFeed;
+
+/**
+ * A staff tablet polling the fleet pages while nothing changes, with and without
+ * sending back the ETag of its last copy. With revalidation on, every poll after the
+ * first should be a 304 that skips the queries and the template; the notModified and
+ * rendered counters show how the polls were answered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ConditionalGetBenchmarks {
+
+    private static final String WORKER = "bench-worker@drivesmart.com";
+    private static final String PASSWORD = "bench-password";
+
+    @Param({"on", "off"})
+    public String revalidate;
+
+    @Param({"2000"})
+    public int cars;
+
+    @Param({"2000"})
+    public long bookings;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String cookie;
+    private List<Long> carIds;
+    private final Map<String, String> etags = new HashMap<>();
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        context = new SpringApplication(DriveSmart2Application.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:conditional;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--drivesmart.images.dir=target/benchmark-images");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData data = new BenchmarkData(jdbc);
+        long customerId = data.insertUser();
+        data.insertUser(WORKER);
+        jdbc.update("UPDATE users SET role = 'WORKER' WHERE email = ?", WORKER);
+        jdbc.update("UPDATE users SET password = ?", context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        data.insertCars(cars);
+        data.insertBookings(customerId, cars, bookings);
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(BookingRollupService.class).rebuild();
+        context.getBean(CarSearchIndex.class).rebuild();
+        context.getBean(RecentBookingsFeed.class).rebuild();
+        carIds = jdbc.queryForList("SELECT id FROM cars ORDER BY id", Long.class);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        cookie = signIn();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    // Totals per iteration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Answers {
+        public long notModified;
+        public long rendered;
+    }
+
+    @Benchmark
+    public int pollCars(Answers answers) throws Exception {
+        return poll("/cars", answers);
+    }
+
+    @Benchmark
+    public int pollBookings(Answers answers) throws Exception {
+        return poll("/bookings", answers);
+    }
+
+    @Benchmark
+    public int pollCarDetails(Answers answers) throws Exception {
+        return poll("/cars/details?id=" + carIds.get(ThreadLocalRandom.current().nextInt(carIds.size())), answers);
+    }
+
+    private int poll(String path, Answers answers) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", cookie)
+                .GET();
+        String etag = etags.get(path);
+        if (etag != null && "on".equals(revalidate)) {
+            request.header("If-None-Match", etag);
+        }
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 304) {
+            answers.notModified++;
+        } else if (response.statusCode() == 200) {
+            answers.rendered++;
+            response.headers().firstValue("ETag").ifPresent(tag -> etags.put(path, tag));
+        } else {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private String signIn() throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(WORKER, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/process-login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("Benchmark sign-in failed for " + WORKER);
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie after sign-in"));
+    }
+}
@@ -0,0 +1,221 @@
+package com.drivesmart.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.drivesmart.DriveSmart2Application;
+import com.drivesmart.service.BookingIntervalIndex;
+import com.drivesmart.service.BookingRollupService;
+import com.drivesmart.service.CarSearchIndex;
+import com.drivesmart.service.DashboardStats;
+import com.drivesmart.service.RecentBookingsFeed;
+
+/**
+ * End-to-end HTTP load on a real Tomcat, comparing platform request threads with
+ * virtual threads. Every JMH thread is one concurrent client; the default 256 clients
+ * exceed Tomcat's 200 platform threads. Reads use a customer with a fixed set of
+ * bookings, and new bookings go to a second customer so the lists do not grow.
+ *
+ * Virtual threads need a Java 21+ JVM for the forked run, for example:
+ * mvn -Pbenchmark -DskipTests verify -Djmh.args="HttpLoadBenchmarks -jvm /path/to/jdk-21/bin/java"
+ * Pinning shows up on stdout through -Djdk.tracePinnedThreads. The default database is
+ * in-memory H2, which never waits on I/O and serialises on its own monitors; point
+ * -Dbenchmark.jdbc.url (plus .username and .password) at PostgreSQL to measure the
+ * blocking-JDBC case virtual threads are meant for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(256)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Djdk.tracePinnedThreads=short"})
+public class HttpLoadBenchmarks {
+
+    private static final String READER = "bench@drivesmart.com";
+    private static final String WRITER = "bench-writer@drivesmart.com";
+    private static final String PASSWORD = "bench-password";
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"500"})
+    public int cars;
+
+    // All owned by the reading customer, so this is the size of the /bookings page
+    @Param({"200"})
+    public long bookings;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String readerCookie;
+    private String writerCookie;
+    private List<Long> carIds;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21+ JVM; pass -jvm <java21>/bin/java");
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.profiles.active=" + (virtual ? "benchmark,virtual-threads" : "benchmark"),
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--drivesmart.images.dir=target/benchmark-images"));
+        String jdbcUrl = System.getProperty("benchmark.jdbc.url");
+        if (jdbcUrl == null) {
+            args.addAll(List.of(
+                    "--spring.datasource.url=jdbc:h2:mem:httpload;DB_CLOSE_DELAY=-1",
+                    "--spring.datasource.username=sa",
+                    "--spring.datasource.password=",
+                    "--spring.datasource.driver-class-name=org.h2.Driver",
+                    "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"));
+        } else {
+            args.addAll(List.of(
+                    "--spring.datasource.url=" + jdbcUrl,
+                    "--spring.datasource.username=" + System.getProperty("benchmark.jdbc.username", ""),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", "")));
+        }
+        context = new SpringApplication(DriveSmart2Application.class).run(args.toArray(String[]::new));
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData data = new BenchmarkData(jdbc);
+        long userId = data.insertUser();
+        data.insertUser(WRITER);
+        jdbc.update("UPDATE users SET password = ?",
+                context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        data.insertCars(cars);
+        data.insertBookings(userId, cars, bookings);
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(BookingRollupService.class).rebuild();
+        context.getBean(CarSearchIndex.class).rebuild();
+        context.getBean(RecentBookingsFeed.class).rebuild();
+        context.getBean(DashboardStats.class).reconcile();
+        carIds = jdbc.queryForList("SELECT id FROM cars ORDER BY id", Long.class);
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        readerCookie = signIn(READER);
+        writerCookie = signIn(WRITER);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    @Benchmark
+    public int listCars() throws Exception {
+        return get("/cars");
+    }
+
+    @Benchmark
+    public int listBookings() throws Exception {
+        return get("/bookings");
+    }
+
+    // Per-thread outcome rates, reported next to the createBooking score
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class BookingOutcomes {
+        public long created;
+        public long rejected;
+    }
+
+    // Overlapping or failed attempts redirect back to the form; those count as rejected, not as work done
+    @Benchmark
+    public int createBooking(BookingOutcomes outcomes) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long carId = carIds.get(random.nextInt(carIds.size()));
+        LocalDate start = LocalDate.now().plusDays(400 + random.nextInt(3000));
+        String form = "carId=" + carId + "&startDate=" + start + "&endDate=" + start.plusDays(random.nextInt(5));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+                .header("Cookie", writerCookie)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.headers().firstValue("Location").orElse("").contains("/bookings/new")) {
+            outcomes.rejected++;
+        } else {
+            outcomes.created++;
+        }
+        return response.statusCode();
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Cookie", readerCookie)
+                .GET()
+                .build();
+        return send(request);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private String signIn(String email) throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/process-login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        String location = response.headers().firstValue("Location").orElse("");
+        if (location.contains("error")) {
+            throw new IllegalStateException("Benchmark sign-in failed for " + email);
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(cookie -> cookie.startsWith("JSESSIONID="))
+                .map(cookie -> cookie.substring(0, cookie.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie after sign-in"));
+    }
+}
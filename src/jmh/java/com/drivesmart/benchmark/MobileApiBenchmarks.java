@@ -0,0 +1,202 @@
+package com.drivesmart.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.drivesmart.DriveSmart2Application;
+import com.drivesmart.service.BookingIntervalIndex;
+import com.drivesmart.service.BookingRollupService;
+import com.drivesmart.service.CarSearchIndex;
+import com.drivesmart.service.RecentBookingsFeed;
+
+/**
+ * What the mobile app pays per screen: the rendered fleet and booking pages against the
+ * JSON API with a field selection, both gzip-encoded by a real Tomcat. apiCars walks every
+ * cursor page to fetch the whole fleet, so it compares with one full pageCars render.
+ * wireBytes over requests is the average compressed body size per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MobileApiBenchmarks {
+
+    private static final String WORKER = "bench-worker@drivesmart.com";
+    private static final String PASSWORD = "bench-password";
+
+    // The fields the app's fleet list shows
+    private static final String CAR_FIELDS = "id,brand,model,pricePerDay,bookable,thumbnailUrl";
+    private static final String BOOKING_FIELDS = "id,carName,userName,startDate,endDate,status";
+
+    @Param({"2000"})
+    public int cars;
+
+    @Param({"2000"})
+    public long bookings;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String cookie;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        context = new SpringApplication(DriveSmart2Application.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:mobileapi;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--drivesmart.images.dir=target/benchmark-images");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData data = new BenchmarkData(jdbc);
+        long customerId = data.insertUser();
+        data.insertUser(WORKER);
+        jdbc.update("UPDATE users SET role = 'WORKER' WHERE email = ?", WORKER);
+        jdbc.update("UPDATE users SET password = ?", context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        data.insertCars(cars);
+        data.insertBookings(customerId, cars, bookings);
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(BookingRollupService.class).rebuild();
+        context.getBean(CarSearchIndex.class).rebuild();
+        context.getBean(RecentBookingsFeed.class).rebuild();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        cookie = signIn();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    // Totals per iteration
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+        public long requests;
+        public long wireBytes;
+    }
+
+    @Benchmark
+    public int pageCars(Wire wire) throws Exception {
+        return get("/cars", wire).length;
+    }
+
+    @Benchmark
+    public int apiCars(Wire wire) throws Exception {
+        int pages = 0;
+        String cursor = null;
+        do {
+            String page = new String(gunzip(get("/api/v1/cars?limit=200&fields=" + CAR_FIELDS
+                    + (cursor != null ? "&cursor=" + cursor : ""), wire)), StandardCharsets.UTF_8);
+            cursor = nextCursor(page);
+            pages++;
+        } while (cursor != null);
+        return pages;
+    }
+
+    // The first screen of the booking list: 20 rows either way
+    @Benchmark
+    public int pageBookings(Wire wire) throws Exception {
+        return get("/bookings", wire).length;
+    }
+
+    @Benchmark
+    public int apiBookings(Wire wire) throws Exception {
+        return get("/api/v1/bookings?limit=20&fields=" + BOOKING_FIELDS, wire).length;
+    }
+
+    private byte[] get(String path, Wire wire) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Cookie", cookie)
+                        .header("Accept-Encoding", "gzip")
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        wire.requests++;
+        wire.wireBytes += response.body().length;
+        return response.body();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        if (body.length < 2 || (body[0] & 0xff) != 0x1f || (body[1] & 0xff) != 0x8b) {
+            return body;
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static String nextCursor(String page) {
+        int at = page.lastIndexOf("\"next\":");
+        if (at < 0) {
+            throw new IllegalStateException("No next cursor in " + page);
+        }
+        int start = at + "\"next\":".length();
+        return page.startsWith("null", start) ? null : page.substring(start + 1, page.indexOf('"', start + 1));
+    }
+
+    private String signIn() throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(WORKER, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/process-login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("Benchmark sign-in failed for " + WORKER);
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie after sign-in"));
+    }
+}
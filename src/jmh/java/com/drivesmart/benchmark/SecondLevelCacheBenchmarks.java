@@ -0,0 +1,167 @@
+package com.drivesmart.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.drivesmart.DriveSmart2Application;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Car detail and booking form pages over HTTP with the Hibernate second-level cache on and
+ * off. Besides the latency, every request counts the JDBC statements Hibernate prepared
+ * while serving it (from Hibernate statistics), so statements / requests in the results
+ * is the number of database round trips per page. Single-threaded, so each delta belongs
+ * to its own request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SecondLevelCacheBenchmarks {
+
+    private static final String CUSTOMER = "bench@drivesmart.com";
+    private static final String PASSWORD = "bench-password";
+
+    @Param({"on", "off"})
+    public String secondLevelCache;
+
+    @Param({"500"})
+    public int cars;
+
+    private ConfigurableApplicationContext context;
+    private Statistics statistics;
+    private HttpClient client;
+    private String baseUrl;
+    private String cookie;
+    private List<Long> carIds;
+
+    @Setup(Level.Trial)
+    public void startServer() throws Exception {
+        boolean cached = "on".equals(secondLevelCache);
+        context = new SpringApplication(DriveSmart2Application.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:l2cache;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cached,
+                "--spring.jpa.properties.hibernate.cache.use_query_cache=" + cached,
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--drivesmart.images.dir=target/benchmark-images");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        BenchmarkData data = new BenchmarkData(jdbc);
+        data.insertUser(CUSTOMER);
+        jdbc.update("UPDATE users SET password = ?", context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        data.insertCars(cars);
+        carIds = jdbc.queryForList("SELECT id FROM cars ORDER BY id", Long.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        client = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        cookie = signIn();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        context.close();
+    }
+
+    // Totals per iteration; statements / requests is the round trips per page
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long requests;
+    }
+
+    @Benchmark
+    public int carDetails(RoundTrips roundTrips) throws Exception {
+        return get("/cars/details?id=" + randomCar(), roundTrips);
+    }
+
+    @Benchmark
+    public int bookingForm(RoundTrips roundTrips) throws Exception {
+        return get("/bookings/new?carId=" + randomCar(), roundTrips);
+    }
+
+    private long randomCar() {
+        return carIds.get(ThreadLocalRandom.current().nextInt(carIds.size()));
+    }
+
+    private int get(String path, RoundTrips roundTrips) throws IOException, InterruptedException {
+        long before = statistics.getPrepareStatementCount();
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Cookie", cookie)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        roundTrips.statements += statistics.getPrepareStatementCount() - before;
+        roundTrips.requests++;
+        return response.statusCode();
+    }
+
+    private String signIn() throws IOException, InterruptedException {
+        String form = "username=" + URLEncoder.encode(CUSTOMER, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(PASSWORD, StandardCharsets.UTF_8);
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/process-login"))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString(form))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.headers().firstValue("Location").orElse("").contains("error")) {
+            throw new IllegalStateException("Benchmark sign-in failed for " + CUSTOMER);
+        }
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No session cookie after sign-in"));
+    }
+}
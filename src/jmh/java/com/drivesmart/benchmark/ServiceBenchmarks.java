@@ -0,0 +1,193 @@
+package com.drivesmart.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.drivesmart.DriveSmart2Application;
+import com.drivesmart.dto.AuditLogPage;
+import com.drivesmart.dto.CarSuggestion;
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.dto.RecentBooking;
+import com.drivesmart.dto.UtilizationReport;
+import com.drivesmart.service.AuditLogService;
+import com.drivesmart.service.BookingIntervalIndex;
+import com.drivesmart.service.BookingRollupService;
+import com.drivesmart.service.BookingService;
+import com.drivesmart.service.CarSearchIndex;
+import com.drivesmart.service.CarService;
+import com.drivesmart.service.FleetUtilizationService;
+import com.drivesmart.service.RecentBookingsFeed;
+
+/**
+ * Service hot paths against an in-memory H2 database seeded per parameter set.
+ * Sample-time mode gives the latency percentiles; the pom adds the gc profiler
+ * (allocation per operation) and writes results to target/jmh-result.json.
+ *
+ * Larger data sets, for example:
+ * mvn -Pbenchmark -DskipTests verify -Djmh.args="-p cars=1000,10000,100000 -p bookings=10000,1000000,10000000"
+ * (ten million bookings need a few GB of heap: add -jvmArgsAppend -Xmx8g)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+public class ServiceBenchmarks {
+
+    @Param({"1000"})
+    public int cars;
+
+    @Param({"10000"})
+    public long bookings;
+
+    @Param({"10000"})
+    public int auditLogs;
+
+    private ConfigurableApplicationContext context;
+    private BookingService bookingService;
+    private CarService carService;
+    private AuditLogService auditLogService;
+    private FleetUtilizationService utilizationService;
+    private long firstCarId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplication application = new SpringApplication(DriveSmart2Application.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN",
+                "--drivesmart.images.dir=target/benchmark-images");
+
+        BenchmarkData data = new BenchmarkData(context.getBean(JdbcTemplate.class));
+        long userId = data.insertUser();
+        data.insertCars(cars);
+        data.insertBookings(userId, cars, bookings);
+        data.insertAuditLogs(auditLogs);
+        // Seeded behind their backs, so rebuild the derived structures once
+        context.getBean(BookingIntervalIndex.class).rebuild();
+        context.getBean(BookingRollupService.class).rebuild();
+        context.getBean(CarSearchIndex.class).rebuild();
+        context.getBean(RecentBookingsFeed.class).rebuild();
+
+        bookingService = context.getBean(BookingService.class);
+        carService = context.getBean(CarService.class);
+        auditLogService = context.getBean(AuditLogService.class);
+        utilizationService = context.getBean(FleetUtilizationService.class);
+        firstCarId = context.getBean(JdbcTemplate.class).queryForObject("SELECT MIN(id) FROM cars", Long.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean isCarAvailable() {
+        LocalDate start = randomDate();
+        return bookingService.isCarAvailable(randomCar(), start, start.plusDays(3));
+    }
+
+    @Benchmark
+    public boolean isCarBookedOnDate() {
+        return bookingService.isCarBookedOnDate(randomCar(), randomDate());
+    }
+
+    @Benchmark
+    public long countActiveBookings() {
+        return bookingService.countActiveBookings(randomDate());
+    }
+
+    @Benchmark
+    public double calculateMonthlyRevenue() {
+        LocalDate month = randomDate().withDayOfMonth(1);
+        return bookingService.calculateMonthlyRevenue(month, month.plusMonths(1).minusDays(1));
+    }
+
+    @Benchmark
+    public List<RecentBooking> findRecentBookings() {
+        return bookingService.findRecentBookings(5);
+    }
+
+    @Benchmark
+    public List<RecentBooking> findRecentBookingsForCar() {
+        return bookingService.findRecentBookings(5, null, randomCar(), null);
+    }
+
+    @Benchmark
+    public List<CarSummary> listCars() {
+        return carService.getAllCars();
+    }
+
+    @Benchmark
+    public List<CarSummary> searchCars() {
+        String[] brands = BenchmarkData.BRANDS;
+        return carService.searchCars(brands[ThreadLocalRandom.current().nextInt(brands.length)]);
+    }
+
+    @Benchmark
+    public List<CarSuggestion> suggestCars() {
+        String[] brands = BenchmarkData.BRANDS;
+        return carService.suggestCars(brands[ThreadLocalRandom.current().nextInt(brands.length)].substring(0, 2), 8);
+    }
+
+    @Benchmark
+    public AuditLogPage getAuditLogsFirstPage() {
+        return auditLogService.getAuditLogs(null, null, null, null, 50);
+    }
+
+    @Benchmark
+    public AuditLogPage getAuditLogsSearch() {
+        return auditLogService.getAuditLogs("BENCH-" + ThreadLocalRandom.current().nextInt(1000), null, null, null, 50);
+    }
+
+    @Benchmark
+    public Map<String, Object> generateMonthlyReport() {
+        LocalDate month = randomDate().withDayOfMonth(1);
+        return bookingService.generateMonthlyReport(month, month.plusMonths(1).minusDays(1));
+    }
+
+    // A full year of bookings for every car: load, sweep and per-brand peaks
+    @Benchmark
+    public UtilizationReport utilizationReportYear() {
+        LocalDate start = LocalDate.now().minusYears(1);
+        return utilizationService.report(start, start.plusYears(1).minusDays(1));
+    }
+
+    private long randomCar() {
+        return firstCarId + ThreadLocalRandom.current().nextInt(cars);
+    }
+
+    private static LocalDate randomDate() {
+        return LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(730) - 365);
+    }
+}
@@ -0,0 +1,57 @@
+package com.drivesmart.config;
+
+import java.io.IOException;
+
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.drivesmart.entity.User;
+import com.drivesmart.service.UserService;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Ends the session of a signed-in user whose account has been disabled or deleted, on
+ * their next request rather than at their next login. The lookup is a UserCache hit,
+ * and UserService evicts the entry when the account changes. Pages are redirected to the
+ * login page; the mobile API answers 401, as it does for any unauthenticated request.
+ * Registered in SecurityConfig only, not as a servlet filter bean.
+ */
+public class ActiveAccountFilter extends OncePerRequestFilter {
+
+    private final UserService userService;
+
+    public ActiveAccountFilter(UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            User user = userService.findByEmail(auth.getName()).orElse(null);
+            if (user == null || !Boolean.TRUE.equals(user.getIsActive())) {
+                SecurityContextHolder.clearContext();
+                HttpSession session = request.getSession(false);
+                if (session != null) {
+                    session.invalidate();
+                }
+                if (SecurityConfig.API_REQUESTS.matches(request)) {
+                    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                } else {
+                    response.sendRedirect(request.getContextPath() + "/login?disabled=true");
+                }
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+}
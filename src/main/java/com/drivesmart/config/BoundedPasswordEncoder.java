@@ -0,0 +1,150 @@
+package com.drivesmart.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.drivesmart.service.LatencyMetrics;
+
+/**
+ * Runs password verification of a delegate encoder on a small fixed pool, so a burst
+ * of sign-ins occupies a bounded number of cores instead of every request thread.
+ * When the queue is full, or a task has waited longer than max-wait, the caller fails
+ * fast with an AuthenticationServiceException and the login page shows the message.
+ * Hashing a new password stays on the caller's thread: registration, password changes
+ * and the rehash after a login are rare, and their callers are not prepared for an
+ * authentication failure. Queue wait and hashing time go to LatencyMetrics.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final String BUSY = "Sign-in is busy right now, please try again in a moment";
+
+    private final PasswordEncoder delegate;
+    private final LatencyMetrics metrics;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long maxWaitMs;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, LatencyMetrics metrics,
+                                  int threads, int queueCapacity, long maxWaitMs) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMs = maxWaitMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long started = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            metrics.record(LatencyMetrics.PASSWORD, "encode", System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Cheap: only inspects the stored hash
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("threads", (long) executor.getPoolSize());
+        stats.put("active", (long) executor.getActiveCount());
+        stats.put("queued", (long) executor.getQueue().size());
+        stats.put("queueCapacity", (long) queueCapacity);
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        return stats;
+    }
+
+    // Prometheus gauges and counters for the pool, appended to the latency export
+    public String toPrometheus() {
+        Map<String, Long> stats = getStats();
+        StringBuilder out = new StringBuilder();
+        out.append("# TYPE drivesmart_password_pool_active gauge\n")
+                .append("drivesmart_password_pool_active ").append(stats.get("active")).append('\n');
+        out.append("# TYPE drivesmart_password_pool_queued gauge\n")
+                .append("drivesmart_password_pool_queued ").append(stats.get("queued")).append('\n');
+        out.append("# TYPE drivesmart_password_pool_queue_capacity gauge\n")
+                .append("drivesmart_password_pool_queue_capacity ").append(queueCapacity).append('\n');
+        out.append("# TYPE drivesmart_password_pool_completed_total counter\n")
+                .append("drivesmart_password_pool_completed_total ").append(stats.get("completed")).append('\n');
+        out.append("# TYPE drivesmart_password_pool_rejected_total counter\n")
+                .append("drivesmart_password_pool_rejected_total ").append(stats.get("rejected")).append('\n');
+        out.append("# TYPE drivesmart_password_pool_timed_out_total counter\n")
+                .append("drivesmart_password_pool_timed_out_total ").append(stats.get("timedOut")).append('\n');
+        return out.toString();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(String operation, Callable<T> task) {
+        long submitted = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                metrics.record(LatencyMetrics.PASSWORD, "queue-wait", started - submitted);
+                try {
+                    return task.call();
+                } finally {
+                    metrics.record(LatencyMetrics.PASSWORD, operation, System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException(BUSY, e);
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A cancelled task still in the queue is skipped by the worker
+            future.cancel(true);
+            timedOut.incrementAndGet();
+            throw new AuthenticationServiceException(BUSY, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException(BUSY, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.drivesmart.config;
+
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import com.drivesmart.service.LatencyMetrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times our controller handlers up to postHandle, and the view rendering between
+ * postHandle and afterCompletion, so SQL and Java time can be told apart from Thymeleaf.
+ */
+@Component
+public class LatencyInterceptor implements HandlerInterceptor {
+
+    private static final String CONTROLLER_PACKAGE = "com.drivesmart.controller";
+    private static final String STARTED = LatencyInterceptor.class.getName() + ".started";
+    private static final String HANDLER = LatencyInterceptor.class.getName() + ".handler";
+    private static final String HANDLED = LatencyInterceptor.class.getName() + ".handled";
+    private static final String VIEW = LatencyInterceptor.class.getName() + ".view";
+
+    private final LatencyMetrics metrics;
+
+    public LatencyInterceptor(LatencyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                             @NonNull Object handler) {
+        if (handler instanceof HandlerMethod method
+                && method.getBeanType().getPackageName().equals(CONTROLLER_PACKAGE)) {
+            request.setAttribute(HANDLER, method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+            request.setAttribute(STARTED, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                           @NonNull Object handler, ModelAndView modelAndView) {
+        if (request.getAttribute(STARTED) instanceof Long started) {
+            long now = System.nanoTime();
+            metrics.record(LatencyMetrics.CONTROLLER, (String) request.getAttribute(HANDLER), now - started);
+            request.setAttribute(HANDLED, now);
+            if (modelAndView != null && modelAndView.getViewName() != null
+                    && !modelAndView.getViewName().startsWith("redirect:")) {
+                request.setAttribute(VIEW, modelAndView.getViewName());
+            }
+        }
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        if (!(request.getAttribute(STARTED) instanceof Long started)) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (request.getAttribute(HANDLED) instanceof Long handled) {
+            if (request.getAttribute(VIEW) instanceof String view) {
+                metrics.record(LatencyMetrics.VIEW, view, now - handled);
+            }
+        } else {
+            // The handler threw, so postHandle never ran
+            metrics.record(LatencyMetrics.CONTROLLER, (String) request.getAttribute(HANDLER), now - started);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.drivesmart.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.lang.NonNull;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.drivesmart.service.LatencyMetrics;
+
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final LatencyInterceptor latencyInterceptor;
+
+    public MetricsConfig(LatencyInterceptor latencyInterceptor) {
+        this.latencyInterceptor = latencyInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(latencyInterceptor);
+    }
+
+    // Adds a timing listener to every Spring Data repository as its factory is created
+    @Bean
+    static BeanPostProcessor repositoryLatencyListener(ObjectProvider<LatencyMetrics> metrics) {
+        SingletonSupplier<LatencyMetrics> latencyMetrics = SingletonSupplier.of(metrics::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    RepositoryMethodInvocationListener listener = invocation -> latencyMetrics.obtain().record(
+                            LatencyMetrics.REPOSITORY,
+                            invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                            invocation.getDuration(TimeUnit.NANOSECONDS));
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.drivesmart.config;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.entity.AuditLevel;
+import com.drivesmart.service.AuditLogService;
+
+@Component
+public class SecurityAuditListener {
+
+    private final AuditLogService auditLogService;
+
+    public SecurityAuditListener(AuditLogService auditLogService) {
+        this.auditLogService = auditLogService;
+    }
+
+    @EventListener
+    public void onLoginSuccess(AuthenticationSuccessEvent event) {
+        auditLogService.record(event.getAuthentication().getName(), "LOGIN", "Signed in", AuditLevel.SUCCESS);
+    }
+
+    @EventListener
+    public void onLoginFailure(AbstractAuthenticationFailureEvent event) {
+        auditLogService.record(event.getAuthentication().getName(), "LOGIN_FAILED",
+                event.getException().getMessage(), AuditLevel.WARNING);
+    }
+}
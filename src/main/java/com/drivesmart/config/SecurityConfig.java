@@ -1,25 +1,47 @@
 package com.drivesmart.config;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.DelegatingAuthenticationEntryPoint;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import com.drivesmart.service.LatencyMetrics;
+import com.drivesmart.service.UserService;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
-    
+
+    // The mobile API, whose clients get status codes rather than redirects to the login page
+    static final RequestMatcher API_REQUESTS = PathPatternRequestMatcher.withDefaults().matcher("/api/**");
+
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, UserService userService) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/css/**", "/js/**", "/images/**", "/webjars/**").permitAll()
                 .requestMatchers("/login", "/register", "/auth/**").permitAll()
                 .requestMatchers("/admin/**").hasRole("ADMIN")
                 .requestMatchers("/customers/**").hasAnyRole("ADMIN","WORKER")
+                .requestMatchers("/cars/import").hasAnyRole("ADMIN","WORKER")
                 .requestMatchers("/cars/**", "/bookings/**", "/user/**").authenticated()
                 .anyRequest().authenticated()
             )
@@ -39,14 +61,42 @@ public class SecurityConfig {
             )
             .exceptionHandling(exception -> exception
                 .accessDeniedPage("/access-denied")
+                .authenticationEntryPoint(authenticationEntryPoint())
             )
+            .addFilterBefore(new ActiveAccountFilter(userService), AuthorizationFilter.class)
             .csrf(csrf -> csrf.disable()); // Consider enabling CSRF in production
             
         return http.build();
     }
     
+    // The mobile API answers 401; everything else is still sent to the login page
+    private static AuthenticationEntryPoint authenticationEntryPoint() {
+        LinkedHashMap<RequestMatcher, AuthenticationEntryPoint> entryPoints = new LinkedHashMap<>();
+        entryPoints.put(API_REQUESTS, new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED));
+        DelegatingAuthenticationEntryPoint entryPoint = new DelegatingAuthenticationEntryPoint(entryPoints);
+        entryPoint.setDefaultEntryPoint(new LoginUrlAuthenticationEntryPoint("/login"));
+        return entryPoint;
+    }
+
+    // New hashes use the configured algorithm and cost; older ones are rehashed on the next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(
+            LatencyMetrics latencyMetrics,
+            @Value("${drivesmart.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${drivesmart.security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${drivesmart.security.password.threads:0}") int threads,
+            @Value("${drivesmart.security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${drivesmart.security.password.max-wait-ms:3000}") long maxWaitMs) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unsupported password algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain bcrypt
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegating, latencyMetrics, poolSize, queueCapacity, maxWaitMs);
     }
 }
@@ -0,0 +1,170 @@
+package com.drivesmart.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Static assets through one resource chain. @{} links are rewritten by
+ * ResourceUrlEncodingFilter to carry an MD5 of the file's built content
+ * (/css/main-&lt;md5&gt;.css), the .br and .gz variants written by the build are served as-is
+ * to clients that accept them, and caching follows the URL: a fingerprinted path only
+ * ever resolves to the content it names, so it is cached for a year as immutable, while a
+ * plain path revalidates. Only these prefixes are resource handlers
+ * (spring.web.resources.add-mappings=false), so page links that are not assets skip
+ * resource resolution entirely.
+ */
+@Configuration
+public class StaticAssetsConfig implements WebMvcConfigurer {
+
+    private static final String FINGERPRINTED = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic().immutable().getHeaderValue();
+    private static final String PLAIN = CacheControl.noCache().getHeaderValue();
+
+    @Override
+    public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
+        assets(registry, "/css/**", "classpath:/static/css/");
+        assets(registry, "/js/**", "classpath:/static/js/");
+        assets(registry, "/images/**", "classpath:/static/images/");
+        assets(registry, "/{file:manifest\\.json}", "classpath:/static/");
+        assets(registry, "/webjars/**", "classpath:/META-INF/resources/webjars/");
+    }
+
+    private static void assets(ResourceHandlerRegistry registry, String pattern, String location) {
+        registry.addResourceHandler(pattern)
+                .addResourceLocations(location)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new CachePolicyResolver());
+    }
+
+    // Content-hash versions; whether the path carried one decides the Cache-Control of what it resolves to
+    static final class CachePolicyResolver extends VersionResourceResolver {
+
+        CachePolicyResolver() {
+            addContentVersionStrategy("/**");
+        }
+
+        @Override
+        protected Resource resolveResourceInternal(HttpServletRequest request, @NonNull String requestPath,
+                                                   @NonNull List<? extends Resource> locations,
+                                                   @NonNull ResourceResolverChain chain) {
+            Resource plain = chain.resolveResource(request, requestPath, locations);
+            if (plain != null) {
+                return new CachedResource(plain, PLAIN);
+            }
+            Resource versioned = super.resolveResourceInternal(request, requestPath, locations, chain);
+            return versioned != null ? new CachedResource(versioned, FINGERPRINTED) : null;
+        }
+    }
+
+    // Delegates to the resolved resource and adds its Cache-Control to the headers that one already carries.
+    // The policy is part of the description because the transformer cache tells resources apart by it
+    static final class CachedResource extends AbstractResource implements HttpResource {
+
+        private final Resource resource;
+        private final String cacheControl;
+
+        CachedResource(Resource resource, String cacheControl) {
+            this.resource = resource;
+            this.cacheControl = cacheControl;
+        }
+
+        @Override
+        public boolean exists() {
+            return resource.exists();
+        }
+
+        @Override
+        public boolean isReadable() {
+            return resource.isReadable();
+        }
+
+        @Override
+        public boolean isFile() {
+            return resource.isFile();
+        }
+
+        @Override
+        @NonNull
+        public URL getURL() throws IOException {
+            return resource.getURL();
+        }
+
+        @Override
+        @NonNull
+        public URI getURI() throws IOException {
+            return resource.getURI();
+        }
+
+        @Override
+        @NonNull
+        public File getFile() throws IOException {
+            return resource.getFile();
+        }
+
+        @Override
+        @NonNull
+        public InputStream getInputStream() throws IOException {
+            return resource.getInputStream();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return resource.contentLength();
+        }
+
+        @Override
+        public long lastModified() throws IOException {
+            return resource.lastModified();
+        }
+
+        @Override
+        @NonNull
+        public Resource createRelative(@NonNull String relativePath) throws IOException {
+            return new CachedResource(resource.createRelative(relativePath), cacheControl);
+        }
+
+        @Override
+        public String getFilename() {
+            return resource.getFilename();
+        }
+
+        @Override
+        @NonNull
+        public String getDescription() {
+            return resource.getDescription() + " [" + cacheControl + "]";
+        }
+
+        // A fresh instance per call: the encoded wrapper around this one adds its own headers to it
+        @Override
+        @NonNull
+        public HttpHeaders getResponseHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            if (resource instanceof HttpResource http) {
+                headers.putAll(http.getResponseHeaders());
+            }
+            headers.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return headers;
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.drivesmart.controller;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -18,15 +27,29 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.drivesmart.config.BoundedPasswordEncoder;
+import com.drivesmart.dto.CacheRegionStat;
+import com.drivesmart.dto.LatencyStat;
+import com.drivesmart.dto.RecentBooking;
+import com.drivesmart.entity.BookingStatus;
 import com.drivesmart.entity.User;
 import com.drivesmart.entity.UserRole;
+import com.drivesmart.service.BookingExportService;
+import com.drivesmart.service.BookingRollupService;
 import com.drivesmart.service.BookingService;
+import com.drivesmart.service.DashboardStats;
+import com.drivesmart.service.FleetUtilizationService;
+import com.drivesmart.service.LatencyMetrics;
+import com.drivesmart.service.SecondLevelCacheStats;
 import com.drivesmart.service.UserService;
 import com.drivesmart.entity.AuditLevel;
 import com.drivesmart.service.AuditLogService;
 
+import jakarta.servlet.http.HttpServletResponse;
+
 @Controller
 @RequestMapping("/admin")
 @PreAuthorize("hasRole('ADMIN')")
@@ -41,6 +64,27 @@ public class AdminController {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private FleetUtilizationService fleetUtilizationService;
+
+    @Autowired
+    private LatencyMetrics latencyMetrics;
+
+    @Autowired
+    private DashboardStats dashboardStats;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private SecondLevelCacheStats cacheStats;
+
     @ModelAttribute("currentUser")
     public User getCurrentUser() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -49,28 +93,16 @@ public class AdminController {
 
     @GetMapping
     public String adminDashboard(Model model) {
-        // User statistics
-        List<User> allUsers = userService.getAllUsers();
-        Map<String, Long> userStats = allUsers.stream()
-            .collect(Collectors.groupingBy(
-                user -> user.getRole().name(),
-                Collectors.counting()
-            ));
-        
-        // Booking statistics
-        LocalDate today = LocalDate.now();
-        long activeBookings = bookingService.countActiveBookings(today);
-        double monthlyRevenue = bookingService.calculateMonthlyRevenue(
-            YearMonth.now().atDay(1), 
-            YearMonth.now().atEndOfMonth()
-        );
-        
+        // Counters maintained by the user and booking write paths; no table scans here
         java.util.Map<String, Object> attrs = new java.util.HashMap<>();
-        attrs.put("totalUsers", (long) allUsers.size());
-        attrs.put("userStats", userStats);
-        attrs.put("activeBookings", activeBookings);
-        attrs.put("monthlyRevenue", monthlyRevenue);
-        attrs.put("recentUsers", allUsers.stream().limit(5).collect(Collectors.toList()));
+        attrs.put("totalUsers", dashboardStats.getTotalUsers());
+        attrs.put("userStats", dashboardStats.getUsersByRole());
+        attrs.put("activeUsers", dashboardStats.getActiveUsers());
+        attrs.put("inactiveUsers", dashboardStats.getInactiveUsers());
+        attrs.put("bookingStats", dashboardStats.getBookingsByStatus());
+        attrs.put("activeBookings", dashboardStats.getBookingsActiveToday());
+        attrs.put("monthlyRevenue", dashboardStats.getMonthlyRevenue());
+        attrs.put("recentUsers", userService.findRecentUsers());
         attrs.put("recentBookings", bookingService.findRecentBookings(5));
         model.addAllAttributes(attrs);
         
@@ -136,6 +168,11 @@ public class AdminController {
             case "user-activity":
                 reportData = userService.generateUserActivityReport(startDate, endDate);
                 break;
+            case "utilization":
+                reportData = endDate.isBefore(startDate)
+                        ? Map.of()
+                        : Map.of("utilization", fleetUtilizationService.report(startDate, endDate));
+                break;
             case "monthly":
             default:
                 reportData = bookingService.generateMonthlyReport(startDate, endDate);
@@ -147,12 +184,54 @@ public class AdminController {
         reportAttrs.put("startDate", startDate);
         reportAttrs.put("endDate", endDate);
         reportAttrs.put("reportType", reportType);
-        reportAttrs.put("reportTypes", java.util.List.of("monthly", "revenue", "user-activity"));
+        reportAttrs.put("reportTypes", java.util.List.of("monthly", "revenue", "user-activity", "utilization"));
         model.addAllAttributes(reportAttrs);
         
         return "admin/reports";
     }
 
+    // Every booking overlapping the range as CSV, streamed in chunks as rows come off the cursor;
+    // gzip=true sends a .csv.gz file instead
+    @GetMapping("/reports/bookings.csv")
+    public void exportBookings(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        if (endDate.isBefore(startDate)) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "endDate is before startDate");
+            return;
+        }
+        String filename = "bookings-" + startDate + "-to-" + endDate + (gzip ? ".csv.gz" : ".csv");
+        response.setContentType(gzip ? "application/gzip" : "text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        OutputStream body = gzip ? new GZIPOutputStream(response.getOutputStream(), 1 << 16) : response.getOutputStream();
+        long rows;
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8), 1 << 16)) {
+            rows = bookingExportService.exportCsv(startDate, endDate, out);
+        }
+        auditLogService.record("BOOKINGS_EXPORTED", rows + " bookings from " + startDate + " to " + endDate,
+                AuditLevel.SUCCESS);
+    }
+
+    @PostMapping("/reports/rollups/rebuild")
+    public String rebuildReportRollups(RedirectAttributes redirectAttributes) {
+        try {
+            bookingRollupService.rebuild();
+            LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+            if (bookingRollupService.verify(monthStart, YearMonth.now().atEndOfMonth())) {
+                redirectAttributes.addFlashAttribute("success", "Report rollups rebuilt and verified");
+            } else {
+                redirectAttributes.addFlashAttribute("error", "Report rollups rebuilt but do not match bookings");
+            }
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("error", "Error rebuilding report rollups: " + e.getMessage());
+        }
+        return "redirect:/admin/reports";
+    }
+
     @GetMapping("/settings")
     public String systemSettings(Model model) {
         // In a real app, these would be loaded from a configuration service/database
@@ -188,7 +267,8 @@ public class AdminController {
     @GetMapping("/audit-logs")
     @PreAuthorize("hasRole('ADMIN')")
     public String viewAuditLogs(
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String severity,
@@ -199,12 +279,60 @@ public class AdminController {
                 level = AuditLevel.valueOf(severity.toUpperCase());
             } catch (IllegalArgumentException ignored) {}
         }
-        var logs = auditLogService.getAuditLogs(search, level, page, size);
-        model.addAttribute("logs", logs);
-        model.addAttribute("page", page);
+        var logPage = auditLogService.getAuditLogs(search, level, before, after, size);
+        model.addAttribute("logs", logPage.getLogs());
+        model.addAttribute("nextCursor", logPage.getNextCursor());
+        model.addAttribute("previousCursor", logPage.getPreviousCursor());
         model.addAttribute("size", size);
-        model.addAttribute("severity", severity);
+        model.addAttribute("severity", level != null ? level.name() : null);
         model.addAttribute("search", search);
+        model.addAttribute("auditLevels", AuditLevel.values());
+        model.addAttribute("writerStats", auditLogService.getWriterStats());
         return "admin/audit-logs";
     }
+
+    @GetMapping("/metrics")
+    public String viewMetrics(Model model) {
+        List<LatencyStat> stats = latencyMetrics.getStats();
+        model.addAttribute("controllerStats", stats.stream()
+                .filter(s -> LatencyMetrics.CONTROLLER.equals(s.getKind())).toList());
+        model.addAttribute("repositoryStats", stats.stream()
+                .filter(s -> LatencyMetrics.REPOSITORY.equals(s.getKind())).toList());
+        model.addAttribute("viewStats", stats.stream()
+                .filter(s -> LatencyMetrics.VIEW.equals(s.getKind())).toList());
+        model.addAttribute("passwordStats", stats.stream()
+                .filter(s -> LatencyMetrics.PASSWORD.equals(s.getKind())).toList());
+        model.addAttribute("passwordPool", passwordEncoder.getStats());
+        model.addAttribute("cacheRegions", cacheStats.getRegions());
+        return "admin/metrics";
+    }
+
+    // Latest-activity feed for dashboards and mobile views; filters are optional
+    @GetMapping(value = "/bookings/recent.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<RecentBooking> recentBookingsJson(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long carId,
+            @RequestParam(required = false) BookingStatus status) {
+        return bookingService.findRecentBookings(Math.min(Math.max(limit, 1), 100), userId, carId, status);
+    }
+
+    @GetMapping(value = "/metrics.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<LatencyStat> exportMetricsJson() {
+        return latencyMetrics.getStats();
+    }
+
+    @GetMapping(value = "/metrics/cache.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<CacheRegionStat> exportCacheStatsJson() {
+        return cacheStats.getRegions();
+    }
+
+    @GetMapping(value = "/metrics/prometheus", produces = "text/plain; version=0.0.4; charset=utf-8")
+    @ResponseBody
+    public String exportMetricsPrometheus() {
+        return latencyMetrics.toPrometheus() + passwordEncoder.toPrometheus() + cacheStats.toPrometheus();
+    }
 }
@@ -0,0 +1,97 @@
+package com.drivesmart.controller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+// The fields one API resource can return, each with the code that writes its value onto a streaming generator.
+// A request names a subset with ?fields=a,b; without one every field is written, in declaration order
+final class ApiFields<T> {
+
+    @FunctionalInterface
+    interface Value<T> {
+        void write(JsonGenerator json, T row) throws IOException;
+    }
+
+    record Field<T>(String name, Value<T> value) {
+    }
+
+    private final Map<String, Field<T>> fields = new LinkedHashMap<>();
+
+    ApiFields<T> add(String name, Value<T> value) {
+        fields.put(name, new Field<>(name, value));
+        return this;
+    }
+
+    // Unknown names are rejected rather than skipped, so a typo does not look like an empty value
+    List<Field<T>> select(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return List.copyOf(fields.values());
+        }
+        List<Field<T>> selected = new ArrayList<>();
+        for (String name : requested.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            Field<T> field = fields.get(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "'; expected any of " + fields.keySet());
+            }
+            if (!selected.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+
+    static <T> void writeObject(JsonGenerator json, T row, List<Field<T>> selected) throws IOException {
+        json.writeStartObject();
+        for (Field<T> field : selected) {
+            json.writeFieldName(field.name());
+            field.value().write(json, row);
+        }
+        json.writeEndObject();
+    }
+
+    static void number(JsonGenerator json, Long value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else {
+            json.writeNumber(value);
+        }
+    }
+
+    static void number(JsonGenerator json, Integer value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else {
+            json.writeNumber(value);
+        }
+    }
+
+    static void number(JsonGenerator json, Double value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else {
+            json.writeNumber(value);
+        }
+    }
+
+    static void bool(JsonGenerator json, Boolean value) throws IOException {
+        if (value == null) {
+            json.writeNull();
+        } else {
+            json.writeBoolean(value);
+        }
+    }
+
+    // Strings, dates and enums by their ISO or declared form
+    static void text(JsonGenerator json, Object value) throws IOException {
+        json.writeString(value == null ? null : value.toString());
+    }
+}
@@ -4,7 +4,11 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,8 +19,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.dto.RecentBooking;
 import com.drivesmart.entity.Booking;
 import com.drivesmart.entity.BookingStatus;
 import com.drivesmart.entity.Car;
@@ -24,24 +31,34 @@ import com.drivesmart.entity.User;
 import com.drivesmart.entity.UserRole;
 import com.drivesmart.service.BookingService;
 import com.drivesmart.service.CarService;
+import com.drivesmart.service.DataVersions;
 import com.drivesmart.service.UserService;
 
 @Controller
 @RequestMapping("/bookings")
 public class BookingController {
 
+    private static final int AVAILABLE_CARS_PAGE_SIZE = 12;
+    private static final int LIST_PAGE_SIZE = 20;
+
+    // Booking properties the list may be sorted by
+    private static final Set<String> LIST_SORTS = Set.of("createdAt", "startDate", "endDate", "totalPrice", "status");
+
     private final BookingService bookingService;
     private final CarService carService;
     private final UserService userService;
+    private final DataVersions dataVersions;
 
     public BookingController(
         @NonNull BookingService bookingService,
         @NonNull CarService carService,
-        @NonNull UserService userService
+        @NonNull UserService userService,
+        @NonNull DataVersions dataVersions
     ) {
         this.bookingService = bookingService;
         this.carService = carService;
         this.userService = userService;
+        this.dataVersions = dataVersions;
     }
 
     
@@ -50,7 +67,7 @@ public class BookingController {
                                   @RequestParam(required = false) Long carId,
                                   Model model) {
         try {
-            List<Car> cars = carService.getAllCars();
+            List<CarSummary> cars = carService.getAllCars();
             List<User> clients = userService.findByRole(UserRole.CUSTOMER);
             model.addAttribute("cars", cars);
             model.addAttribute("clients", clients);
@@ -100,25 +117,51 @@ public class BookingController {
     }
 
     @GetMapping
-    public String listBookings(Model model) {
+    public String listBookings(@RequestParam(required = false) String status,
+                               @RequestParam(defaultValue = "createdAt") String sort,
+                               @RequestParam(defaultValue = "desc") String dir,
+                               @RequestParam(defaultValue = "0") int page,
+                               Model model,
+                               ServletWebRequest webRequest) {
+        // Rows show car and customer names, so any of the three changing re-renders the list
+        if (ConditionalPages.notModified(webRequest, dataVersions, "bookings",
+                DataVersions.Aggregate.BOOKING, DataVersions.Aggregate.CAR, DataVersions.Aggregate.USER)) {
+            return null;
+        }
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String email = auth.getName();
             User user = userService.findByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            List<Booking> bookings;
+            Long userId;
             if (user.getRole() == UserRole.ADMIN || user.getRole() == UserRole.WORKER) {
-                bookings = bookingService.getAllBookings();
+                userId = null;
                 model.addAttribute("isStaff", true);
             } else {
-                bookings = bookingService.getUserBookings(Objects.requireNonNull(user.getId(), "User ID cannot be null"));
+                userId = Objects.requireNonNull(user.getId(), "User ID cannot be null");
                 model.addAttribute("isStaff", false);
             }
 
+            BookingStatus statusFilter = null;
+            if (status != null && !status.isBlank()) {
+                try {
+                    statusFilter = BookingStatus.valueOf(status.toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    statusFilter = null;
+                }
+            }
+            String sortBy = LIST_SORTS.contains(sort) ? sort : "createdAt";
+            Sort.Direction direction = "asc".equalsIgnoreCase(dir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+            Page<RecentBooking> bookings = bookingService.getBookingPage(userId, statusFilter,
+                    PageRequest.of(Math.max(page, 0), LIST_PAGE_SIZE, Sort.by(direction, sortBy).and(Sort.by(direction, "id"))));
+
             model.addAttribute("bookings", bookings);
+            model.addAttribute("status", statusFilter != null ? statusFilter.name().toLowerCase() : "all");
+            model.addAttribute("sort", sortBy);
+            model.addAttribute("dir", direction.name().toLowerCase());
             // Stats for bookings/list header
-            model.addAttribute("totalBookings", bookings.size());
+            model.addAttribute("totalBookings", bookings.getTotalElements());
             LocalDate today = LocalDate.now();
             model.addAttribute("activeBookings", bookingService.countActiveBookings(today));
             double revenueToday = bookingService.calculateMonthlyRevenue(today, today);
@@ -131,13 +174,43 @@ public class BookingController {
 
     @GetMapping("/new")
     public String showBookingForm(
-            @RequestParam @NonNull Long carId, 
+            @RequestParam(required = false) Long carId,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "price") String sort,
+            @RequestParam(defaultValue = "0") int page,
             Model model) {
         try {
-            Car car = carService.getCarById(Objects.requireNonNull(carId, "Car ID cannot be null"))
-                    .orElseThrow(() -> new RuntimeException("Car not found"));
-            model.addAttribute("car", car);
+            if (carId != null) {
+                Car car = carService.getCarById(carId)
+                        .orElseThrow(() -> new RuntimeException("Car not found"));
+                model.addAttribute("car", car);
+            }
             model.addAttribute("minDate", LocalDate.now().toString());
+            model.addAttribute("startDate", startDate);
+            model.addAttribute("endDate", endDate);
+            model.addAttribute("brand", brand);
+            model.addAttribute("minPrice", minPrice);
+            model.addAttribute("maxPrice", maxPrice);
+            model.addAttribute("sort", sort);
+
+            // With dates chosen, list every car free for the whole range in one query instead of checking cars one by one
+            if (startDate != null && !startDate.isBlank() && endDate != null && !endDate.isBlank()) {
+                try {
+                    Sort order = "price-desc".equals(sort)
+                            ? Sort.by(Sort.Order.desc("pricePerDay"), Sort.Order.asc("id"))
+                            : Sort.by(Sort.Order.asc("pricePerDay"), Sort.Order.asc("id"));
+                    Page<CarSummary> availableCars = bookingService.findAvailableCars(
+                            LocalDate.parse(startDate), LocalDate.parse(endDate), brand, minPrice, maxPrice,
+                            PageRequest.of(Math.max(page, 0), AVAILABLE_CARS_PAGE_SIZE, order));
+                    model.addAttribute("availableCars", availableCars);
+                } catch (DateTimeParseException | IllegalArgumentException e) {
+                    model.addAttribute("error", e.getMessage());
+                }
+            }
             return "bookings/new";
         } catch (Exception e) {
             throw new RuntimeException("Failed to show booking form", e);
@@ -1,10 +1,19 @@
 package com.drivesmart.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -18,11 +27,21 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.drivesmart.dto.CarImportResult;
+import com.drivesmart.dto.CarSuggestion;
+import com.drivesmart.dto.CarSummary;
 import com.drivesmart.entity.Car;
+import com.drivesmart.service.CarImageStore;
+import com.drivesmart.service.CarImageVariants;
+import com.drivesmart.service.CarImportService;
 import com.drivesmart.service.CarService;
+import com.drivesmart.service.DataVersions;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
@@ -35,26 +54,35 @@ public class CarController {
     @Autowired
     private com.drivesmart.service.BookingService bookingService;
 
-    // List all cars (Mobile View)
+    @Autowired
+    private CarImageStore imageStore;
+
+    @Autowired
+    private CarImageVariants imageVariants;
+
+    @Autowired
+    private CarImportService carImportService;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    // List all cars (Mobile View); 304 while no car or booking has changed today
     @GetMapping
-    public String listCars(Model model) {
-        List<Car> cars = carService.getAllCars();
+    public String listCars(Model model, ServletWebRequest webRequest) {
+        if (ConditionalPages.notModified(webRequest, dataVersions, "cars",
+                DataVersions.Aggregate.CAR, DataVersions.Aggregate.BOOKING)) {
+            return null;
+        }
+        List<CarSummary> cars = carService.getAllCars();
         model.addAttribute("cars", cars);
         model.addAttribute("totalCars", cars.size());
-        long availableCars = cars.stream().filter(c -> Boolean.TRUE.equals(c.getIsAvailable())).count();
+        long availableCars = cars.stream().filter(c -> Boolean.TRUE.equals(c.isAvailable())).count();
         model.addAttribute("availableCars", availableCars);
-        long maintenanceCars = cars.stream().filter(c -> Boolean.TRUE.equals(c.getInMaintenance())).count();
+        long maintenanceCars = cars.stream().filter(c -> Boolean.TRUE.equals(c.inMaintenance())).count();
         model.addAttribute("maintenanceCars", maintenanceCars);
         long bookedToday = bookingService.countActiveBookings(java.time.LocalDate.now());
         model.addAttribute("bookedCars", bookedToday);
-        java.util.Set<Long> bookedTodayCarIds = new java.util.HashSet<>();
-        java.time.LocalDate today = java.time.LocalDate.now();
-        for (Car c : cars) {
-            Long carId = c.getId();
-            if (carId != null && bookingService.isCarBookedOnDate(carId, java.util.Objects.requireNonNull(today))) {
-                bookedTodayCarIds.add(carId);
-            }
-        }
+        java.util.Set<Long> bookedTodayCarIds = bookingService.findCarsBookedOnDate(java.time.LocalDate.now());
         model.addAttribute("bookedTodayCarIds", bookedTodayCarIds);
         return "cars/list";
     }
@@ -88,13 +116,38 @@ public class CarController {
         if (imageFile != null && !imageFile.isEmpty()) {
             car.setImageName(imageFile.getOriginalFilename());
             car.setImageType(imageFile.getContentType());
-            car.setImageData(imageFile.getBytes());
+            car.setImageHash(imageStore.store(imageFile.getInputStream()));
         }
         
         carService.saveCar(car);
         return "redirect:/cars?success";
     }
 
+    // Bulk import, streamed from the request body: CSV with a header row (brand, model, licensePlate,
+    // year, color, pricePerDay, optional isAvailable) or a JSON array of objects with those fields
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @ResponseBody
+    public ResponseEntity<CarImportResult> importCars(HttpServletRequest request) throws IOException {
+        CarImportResult result = carImportService.importCars(request.getInputStream(),
+                CarImportService.Format.of(request.getContentType(), null));
+        return importResponse(result);
+    }
+
+    // Same from an upload form; the format follows the file's content type or extension
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @ResponseBody
+    public ResponseEntity<CarImportResult> importCarsFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return importResponse(carImportService.importCars(in,
+                    CarImportService.Format.of(file.getContentType(), file.getOriginalFilename())));
+        }
+    }
+
+    // Unreadable input is a bad request even though rows before the fault were imported
+    private static ResponseEntity<CarImportResult> importResponse(CarImportResult result) {
+        return result.aborted() != null ? ResponseEntity.badRequest().body(result) : ResponseEntity.ok(result);
+    }
+
     // Edit car - Form
     @GetMapping("/edit")
     public String showEditForm(@RequestParam Long id, Model model) {
@@ -116,20 +169,29 @@ public class CarController {
             return "cars/edit";
         }
         
-        // Handle image update (optional)
+        // Handle image update (optional); otherwise keep the current image
         if (imageFile != null && !imageFile.isEmpty()) {
             car.setImageName(imageFile.getOriginalFilename());
             car.setImageType(imageFile.getContentType());
-            car.setImageData(imageFile.getBytes());
+            car.setImageHash(imageStore.store(imageFile.getInputStream()));
+        } else if (car.getId() != null) {
+            carService.getCarById(car.getId()).ifPresent(existing -> {
+                car.setImageName(existing.getImageName());
+                car.setImageType(existing.getImageType());
+                car.setImageHash(existing.getImageHash());
+            });
         }
         
         carService.saveCar(car);
         return "redirect:/cars?success=updated";
     }
 
-    // Car details
+    // Car details; 304 while no car has changed
     @GetMapping("/details")
-    public String carDetails(@RequestParam Long id, Model model) {
+    public String carDetails(@RequestParam Long id, Model model, ServletWebRequest webRequest) {
+        if (ConditionalPages.notModified(webRequest, dataVersions, "car", DataVersions.Aggregate.CAR)) {
+            return null;
+        }
         Optional<Car> car = carService.getCarById(id);
         if (car.isPresent()) {
             model.addAttribute("car", car.get());
@@ -143,7 +205,7 @@ public class CarController {
     public String searchCars(@RequestParam(required = false) String query, Model model) {
         if (query != null && !query.trim().isEmpty()) {
             // Search by brand, model, or license plate
-            List<Car> cars = carService.searchCars(query);
+            List<CarSummary> cars = carService.searchCars(query);
             model.addAttribute("cars", cars);
             model.addAttribute("searchTerm", query);
         } else {
@@ -152,6 +214,14 @@ public class CarController {
         return "cars/search";
     }
 
+    // Type-ahead for the search box, answered from the in-memory index
+    @GetMapping("/search/suggest")
+    @ResponseBody
+    public List<CarSuggestion> suggestCars(@RequestParam(name = "q", required = false) String query,
+                                           @RequestParam(defaultValue = "8") int limit) {
+        return carService.suggestCars(query, limit);
+    }
+
     // Mobile API: Toggle car availability
     @PutMapping("/{id}/status")
     @ResponseBody
@@ -185,31 +255,127 @@ public class CarController {
         }
     }
 
-    // Serve car images
+    // Serve car images by car id (older links); resolves the stored hash without loading the car
     @GetMapping("/image/{id}")
-    public ResponseEntity<byte[]> getCarImage(@PathVariable Long id) {
-        Optional<Car> carOptional = carService.getCarById(id);
-        
-        if (carOptional.isEmpty()) {
-            return ResponseEntity.notFound().build();
+    public void getCarImage(@PathVariable Long id,
+                            @RequestParam(required = false) String size,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        Optional<String> hash = carImageHash(id);
+        if (hash.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
-        
-        Car car = carOptional.get();
-        byte[] imageData = car.getImageData();
-        String imageType = car.getImageType();
-        
-        if (imageData == null || imageType == null) {
-            return ResponseEntity.notFound().build();
+        getStoredImage(hash.get(), size, request, response);
+    }
+
+    // Serve images from the content-addressed store: size=thumb|card from the variant cache,
+    // otherwise the original file. Tomcat sends the file itself with sendfile where the connector
+    // supports it, so its bytes never pass through the JVM; elsewhere they are copied in small chunks
+    @GetMapping("/images/{hash}")
+    public void getStoredImage(@PathVariable String hash,
+                               @RequestParam(required = false) String size,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        Path path = imageStore.resolve(hash);
+        if (path == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
-        
-        try {
-            MediaType mediaType = MediaType.parseMediaType(imageType);
-            return ResponseEntity.ok()
-                    .contentType(mediaType)
-                    .body(imageData);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+        CarImageVariants.Size requested = CarImageVariants.Size.parse(size);
+        CarImageVariants.Variant variant = imageVariants.get(hash, requested);
+        if (variant != null) {
+            byte[] data = variant.data();
+            serveImage("\"" + hash + "-" + requested.getWidth() + "\"", data.length, variant.contentType(),
+                    (target, start, length) -> target.getOutputStream().write(data, (int) start, (int) length),
+                    request, response);
+            return;
+        }
+        serveImage("\"" + hash + "\"", Files.size(path), imageStore.contentType(path),
+                (target, start, length) -> {
+                    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                        request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+                        request.setAttribute(SENDFILE_START, start);
+                        request.setAttribute(SENDFILE_END, start + length);
+                        return;
+                    }
+                    try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+                        WritableByteChannel channel = Channels.newChannel(target.getOutputStream());
+                        long position = start;
+                        long remaining = length;
+                        while (remaining > 0) {
+                            long sent = file.transferTo(position, remaining, channel);
+                            if (sent <= 0) {
+                                break;
+                            }
+                            position += sent;
+                            remaining -= sent;
+                        }
+                    }
+                },
+                request, response);
+    }
+
+    // Request attributes of Tomcat's sendfile support; the end offset is exclusive
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @FunctionalInterface
+    private interface ImageBody {
+        void write(HttpServletResponse response, long start, long length) throws IOException;
+    }
+
+    // Immutable content: strong ETag, one-year cache, 304 on a matching If-None-Match, single byte ranges
+    private void serveImage(String etag, long size, String contentType, ImageBody body,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(etag) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long length = size;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange requested = ranges.get(0);
+                if (size == 0 || requested.getRangeStart(size) >= size) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = requested.getRangeStart(size);
+                length = requested.getRangeEnd(size) - start + 1;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (start + length - 1) + "/" + size);
+            }
+        }
+
+        response.setContentType(contentType);
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
         }
+        body.write(response, start, length);
+    }
+
+    private Optional<String> carImageHash(Long id) {
+        return id == null ? Optional.empty() : carService.getImageHash(id);
     }
 
     // Mobile API: Quick add (for mobile app)
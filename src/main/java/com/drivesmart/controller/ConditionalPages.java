@@ -0,0 +1,51 @@
+package com.drivesmart.controller;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import com.drivesmart.service.DataVersions;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+// Conditional GET for pages polled by staff tablets, checked before the handler reads anything
+final class ConditionalPages {
+
+    private ConditionalPages() {
+    }
+
+    // True when the client's copy is current: the response is then a 304 and the handler returns null.
+    // The tag covers the given aggregates, today and the signed-in user with their roles
+    static boolean notModified(ServletWebRequest request, DataVersions versions, String page,
+                               DataVersions.Aggregate... inputs) {
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request.getRequest());
+        if (flash != null && !flash.isEmpty()) {
+            // A one-off message is on this render; never let a later 304 bring it back
+            return false;
+        }
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        }
+        return request.checkNotModified(versions.etag(page, viewer(), LocalDate.now(), inputs));
+    }
+
+    private static String viewer() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return "";
+        }
+        return auth.getName() + auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+}
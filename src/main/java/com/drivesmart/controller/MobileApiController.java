@@ -0,0 +1,293 @@
+package com.drivesmart.controller;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.dto.RecentBooking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.service.BookingService;
+import com.drivesmart.service.CarService;
+import com.drivesmart.service.DataVersions;
+import com.drivesmart.service.UserService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Read-only JSON API for the mobile app: cars, bookings and availability, so the app
+ * no longer downloads rendered pages. Lists are keyset-paged: a page carries an opaque
+ * "next" cursor (null on the last page) that the client passes back as ?cursor=, and
+ * ?limit= sets the page size. ?fields=id,brand,pricePerDay returns only the named fields.
+ * Rows are written one field at a time onto the response stream, with no intermediate
+ * tree or string; Tomcat gzips the larger bodies (server.compression), and every
+ * endpoint answers a current If-None-Match with a 304 before querying.
+ */
+@Controller
+@RequestMapping("/api/v1")
+public class MobileApiController {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private static final ApiFields<CarSummary> CAR_FIELDS = new ApiFields<CarSummary>()
+            .add("id", (json, car) -> ApiFields.number(json, car.id()))
+            .add("brand", (json, car) -> ApiFields.text(json, car.brand()))
+            .add("model", (json, car) -> ApiFields.text(json, car.model()))
+            .add("licensePlate", (json, car) -> ApiFields.text(json, car.licensePlate()))
+            .add("year", (json, car) -> ApiFields.number(json, car.year()))
+            .add("color", (json, car) -> ApiFields.text(json, car.color()))
+            .add("pricePerDay", (json, car) -> ApiFields.number(json, car.pricePerDay()))
+            .add("available", (json, car) -> ApiFields.bool(json, car.isAvailable()))
+            .add("inMaintenance", (json, car) -> ApiFields.bool(json, car.inMaintenance()))
+            .add("bookable", (json, car) -> json.writeBoolean(car.isBookable()))
+            .add("imageUrl", (json, car) -> ApiFields.text(json, car.getImageUrl()))
+            .add("thumbnailUrl", (json, car) -> ApiFields.text(json, car.getThumbnailUrl()));
+
+    private static final ApiFields<RecentBooking> BOOKING_FIELDS = new ApiFields<RecentBooking>()
+            .add("id", (json, booking) -> ApiFields.number(json, booking.id()))
+            .add("userId", (json, booking) -> ApiFields.number(json, booking.userId()))
+            .add("userName", (json, booking) -> ApiFields.text(json, booking.userName()))
+            .add("carId", (json, booking) -> ApiFields.number(json, booking.carId()))
+            .add("carName", (json, booking) -> ApiFields.text(json, booking.carName()))
+            .add("licensePlate", (json, booking) -> ApiFields.text(json, booking.licensePlate()))
+            .add("startDate", (json, booking) -> ApiFields.text(json, booking.startDate()))
+            .add("endDate", (json, booking) -> ApiFields.text(json, booking.endDate()))
+            .add("totalPrice", (json, booking) -> ApiFields.number(json, booking.totalPrice()))
+            .add("status", (json, booking) -> ApiFields.text(json, booking.status()))
+            .add("createdAt", (json, booking) -> ApiFields.text(json, booking.createdAt()));
+
+    private final CarService carService;
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final DataVersions dataVersions;
+    private final JsonFactory jsonFactory;
+
+    public MobileApiController(
+        @NonNull CarService carService,
+        @NonNull BookingService bookingService,
+        @NonNull UserService userService,
+        @NonNull DataVersions dataVersions,
+        @NonNull ObjectMapper objectMapper
+    ) {
+        this.carService = carService;
+        this.bookingService = bookingService;
+        this.userService = userService;
+        this.dataVersions = dataVersions;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    // Every car in id order
+    @GetMapping("/cars")
+    public void cars(@RequestParam(required = false) String cursor,
+                     @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                     @RequestParam(required = false) String fields,
+                     ServletWebRequest webRequest,
+                     HttpServletResponse response) throws IOException {
+        List<ApiFields.Field<CarSummary>> selected;
+        long afterId;
+        try {
+            selected = CAR_FIELDS.select(fields);
+            afterId = decodeCursor(cursor, 0);
+            checkLimit(limit);
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (ConditionalPages.notModified(webRequest, dataVersions, "api-cars", DataVersions.Aggregate.CAR)) {
+            return;
+        }
+        writePage(response, carService.getCarsAfter(afterId, limit + 1), limit, CarSummary::id, selected);
+    }
+
+    @GetMapping("/cars/{id}")
+    public void car(@PathVariable Long id,
+                    @RequestParam(required = false) String fields,
+                    ServletWebRequest webRequest,
+                    HttpServletResponse response) throws IOException {
+        List<ApiFields.Field<CarSummary>> selected;
+        try {
+            selected = CAR_FIELDS.select(fields);
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (ConditionalPages.notModified(webRequest, dataVersions, "api-car", DataVersions.Aggregate.CAR)) {
+            return;
+        }
+        Optional<CarSummary> car = carService.getCarSummary(id);
+        if (car.isEmpty()) {
+            writeError(response, HttpServletResponse.SC_NOT_FOUND, "Car not found");
+            return;
+        }
+        try (JsonGenerator json = open(response, HttpServletResponse.SC_OK)) {
+            ApiFields.writeObject(json, car.get(), selected);
+        }
+    }
+
+    // Newest first; customers see their own bookings, staff see everyone's
+    @GetMapping("/bookings")
+    public void bookings(@RequestParam(required = false) String status,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                         @RequestParam(required = false) String fields,
+                         ServletWebRequest webRequest,
+                         HttpServletResponse response) throws IOException {
+        List<ApiFields.Field<RecentBooking>> selected;
+        BookingStatus statusFilter;
+        long beforeId;
+        try {
+            selected = BOOKING_FIELDS.select(fields);
+            statusFilter = parseStatus(status);
+            beforeId = decodeCursor(cursor, Long.MAX_VALUE);
+            checkLimit(limit);
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        // Rows show car and customer names, as on the booking list page
+        if (ConditionalPages.notModified(webRequest, dataVersions, "api-bookings",
+                DataVersions.Aggregate.BOOKING, DataVersions.Aggregate.CAR, DataVersions.Aggregate.USER)) {
+            return;
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Optional<User> user = userService.findByEmail(auth.getName());
+        if (user.isEmpty()) {
+            writeError(response, HttpServletResponse.SC_UNAUTHORIZED, "User not found");
+            return;
+        }
+        UserRole role = user.get().getRole();
+        Long userId = role == UserRole.ADMIN || role == UserRole.WORKER ? null : user.get().getId();
+        writePage(response, bookingService.getBookingsBefore(beforeId, userId, statusFilter, limit + 1),
+                limit, RecentBooking::id, selected);
+    }
+
+    // Cars free for the whole of [start, end], in id order; brand is a substring, prices are optional bounds
+    @GetMapping("/availability")
+    public void availability(@RequestParam String start,
+                             @RequestParam String end,
+                             @RequestParam(required = false) String brand,
+                             @RequestParam(required = false) Double minPrice,
+                             @RequestParam(required = false) Double maxPrice,
+                             @RequestParam(required = false) String cursor,
+                             @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit,
+                             @RequestParam(required = false) String fields,
+                             ServletWebRequest webRequest,
+                             HttpServletResponse response) throws IOException {
+        List<ApiFields.Field<CarSummary>> selected;
+        LocalDate startDate;
+        LocalDate endDate;
+        long afterId;
+        try {
+            selected = CAR_FIELDS.select(fields);
+            startDate = LocalDate.parse(start);
+            endDate = LocalDate.parse(end);
+            if (endDate.isBefore(startDate)) {
+                throw new IllegalArgumentException("End date must be on or after the start date");
+            }
+            afterId = decodeCursor(cursor, 0);
+            checkLimit(limit);
+        } catch (DateTimeParseException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, "Dates must be ISO yyyy-MM-dd");
+            return;
+        } catch (IllegalArgumentException e) {
+            writeError(response, HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        if (ConditionalPages.notModified(webRequest, dataVersions, "api-availability",
+                DataVersions.Aggregate.CAR, DataVersions.Aggregate.BOOKING)) {
+            return;
+        }
+        writePage(response, bookingService.findAvailableCarsAfter(startDate, endDate, brand, minPrice, maxPrice,
+                afterId, limit + 1), limit, CarSummary::id, selected);
+    }
+
+    // rows holds up to limit + 1 entries; the extra one only tells that another page follows
+    private <T> void writePage(HttpServletResponse response, List<T> rows, int limit, ToLongFunction<T> key,
+                               List<ApiFields.Field<T>> selected) throws IOException {
+        int count = Math.min(rows.size(), limit);
+        try (JsonGenerator json = open(response, HttpServletResponse.SC_OK)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("data");
+            for (int i = 0; i < count; i++) {
+                ApiFields.writeObject(json, rows.get(i), selected);
+            }
+            json.writeEndArray();
+            json.writeStringField("next", rows.size() > limit ? encodeCursor(key.applyAsLong(rows.get(count - 1))) : null);
+            json.writeEndObject();
+        }
+    }
+
+    private void writeError(HttpServletResponse response, int status, String message) throws IOException {
+        try (JsonGenerator json = open(response, status)) {
+            json.writeStartObject();
+            json.writeStringField("error", message);
+            json.writeEndObject();
+        }
+    }
+
+    // Closing the generator flushes it; the response stream is left for the container to finish
+    private JsonGenerator open(HttpServletResponse response, int status) throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        return jsonFactory.createGenerator(response.getOutputStream(), JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static BookingStatus parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        try {
+            return BookingStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status '" + status.trim() + "'");
+        }
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+    }
+
+    // The cursor is the last id of the previous page; opaque so clients do not build their own
+    private static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(String cursor, long first) {
+        if (cursor == null || cursor.isBlank()) {
+            return first;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.drivesmart.dto;
+
+import java.util.List;
+
+import com.drivesmart.entity.AuditLog;
+
+// One keyset page of audit logs; cursors are null when there is nothing further in that direction
+public class AuditLogPage {
+
+    private final List<AuditLog> logs;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public AuditLogPage(List<AuditLog> logs, String nextCursor, String previousCursor) {
+        this.logs = logs;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    public List<AuditLog> getLogs() { return logs; }
+    public String getNextCursor() { return nextCursor; }
+    public String getPreviousCursor() { return previousCursor; }
+    public boolean hasNext() { return nextCursor != null; }
+    public boolean hasPrevious() { return previousCursor != null; }
+}
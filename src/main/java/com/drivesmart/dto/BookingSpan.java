@@ -0,0 +1,9 @@
+package com.drivesmart.dto;
+
+import java.time.LocalDate;
+
+import com.drivesmart.entity.BookingStatus;
+
+// Minimal booking row used to (re)build in-memory booking indexes without loading users/cars
+public record BookingSpan(Long bookingId, Long carId, LocalDate startDate, LocalDate endDate, BookingStatus status) {
+}
@@ -0,0 +1,10 @@
+package com.drivesmart.dto;
+
+// Hit, miss and put counts of one second-level cache region since startup
+public record CacheRegionStat(String region, String kind, long hits, long misses, long puts) {
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups > 0 ? (double) hits / lookups : 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.drivesmart.dto;
+
+import java.util.List;
+
+// Outcome of a bulk car import; row numbers count data rows from 1, errors are capped
+public record CarImportResult(long rows, long imported, long duplicates, long failed,
+                              List<RowError> errors, boolean errorsTruncated,
+                              String aborted, long elapsedMs) {
+
+    public record RowError(long row, String licensePlate, String message) {
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMs > 0 ? rows * 1000 / elapsedMs : rows;
+    }
+}
@@ -0,0 +1,5 @@
+package com.drivesmart.dto;
+
+// Type-ahead entry for the car search box
+public record CarSuggestion(Long id, String label, String licensePlate) {
+}
@@ -0,0 +1,23 @@
+package com.drivesmart.dto;
+
+// Car row for lists, search results and dropdowns: no image bytes, no managed entity
+public record CarSummary(Long id, String brand, String model, String licensePlate, Integer year, String color,
+                         Double pricePerDay, Boolean isAvailable, Boolean inMaintenance, String imageHash) {
+
+    // Same URLs as Car, so templates can render either
+    public String getImageUrl() {
+        return hasImage() ? "/cars/images/" + imageHash : "/images/default-car.png";
+    }
+
+    public String getThumbnailUrl() {
+        return hasImage() ? getImageUrl() + "?size=thumb" : getImageUrl();
+    }
+
+    public boolean hasImage() {
+        return imageHash != null && !imageHash.isEmpty();
+    }
+
+    public boolean isBookable() {
+        return Boolean.TRUE.equals(isAvailable) && !Boolean.TRUE.equals(inMaintenance);
+    }
+}
@@ -0,0 +1,34 @@
+package com.drivesmart.dto;
+
+// Latency summary of one timer; all times in microseconds
+public class LatencyStat {
+
+    private final String kind;
+    private final String name;
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p95;
+    private final long p99;
+    private final long max;
+
+    public LatencyStat(String kind, String name, long count, double mean, long p50, long p95, long p99, long max) {
+        this.kind = kind;
+        this.name = name;
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public String getKind() { return kind; }
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public double getMean() { return mean; }
+    public long getP50() { return p50; }
+    public long getP95() { return p95; }
+    public long getP99() { return p99; }
+    public long getMax() { return max; }
+}
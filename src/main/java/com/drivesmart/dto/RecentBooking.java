@@ -0,0 +1,27 @@
+package com.drivesmart.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+
+// Flat booking row for activity feeds and the booking list; holds no entity references, so it is safe to cache
+public record RecentBooking(Long id, Long userId, String userName, Long carId, String carName, String licensePlate,
+                            LocalDate startDate, LocalDate endDate, Double totalPrice, BookingStatus status,
+                            LocalDateTime createdAt) {
+
+    public static RecentBooking of(Booking booking) {
+        return new RecentBooking(booking.getId(),
+                booking.getUser().getId(), booking.getUser().getFullName(),
+                booking.getCar().getId(), booking.getCar().getBrand() + " " + booking.getCar().getModel(),
+                booking.getCar().getLicensePlate(),
+                booking.getStartDate(), booking.getEndDate(), booking.getTotalPrice(), booking.getStatus(),
+                booking.getCreatedAt());
+    }
+
+    public RecentBooking withStatus(BookingStatus newStatus) {
+        return new RecentBooking(id, userId, userName, carId, carName, licensePlate,
+                startDate, endDate, totalPrice, newStatus, createdAt);
+    }
+}
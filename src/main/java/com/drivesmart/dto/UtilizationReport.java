@@ -0,0 +1,37 @@
+package com.drivesmart.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Fleet utilization over [startDate, endDate]; every car counts as available on every day of the range
+public record UtilizationReport(LocalDate startDate, LocalDate endDate, int days,
+                                Totals fleet, LocalDate peakDate,
+                                List<Totals> brands, List<CarUtilization> cars,
+                                long computeMs) {
+
+    // cars is sorted by occupancy, busiest first
+    public List<CarUtilization> busiest(int limit) {
+        return cars.subList(0, Math.min(limit, cars.size()));
+    }
+
+    // Idlest first, never repeating a car busiest(limit) already lists
+    public List<CarUtilization> idlest(int limit) {
+        List<CarUtilization> tail = new ArrayList<>(cars.subList(Math.max(Math.min(limit, cars.size()),
+                cars.size() - limit), cars.size()));
+        Collections.reverse(tail);
+        return tail;
+    }
+
+    // One brand, or the whole fleet
+    public record Totals(String name, int cars, long bookings, long occupiedDays, long idleDays,
+                         double occupancyPercent, double revenue, double revenuePerAvailableDay,
+                         int peakConcurrent) {
+    }
+
+    public record CarUtilization(Long carId, String brand, String model, String licensePlate,
+                                 int bookings, int occupiedDays, int idleDays, double occupancyPercent,
+                                 double revenue, double revenuePerAvailableDay) {
+    }
+}
@@ -7,7 +7,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_bookings_start_date_id", columnList = "start_date, id"),
+        @Index(name = "idx_bookings_car_dates", columnList = "car_id, start_date, end_date")
+})
 public class Booking {
 
     @Id
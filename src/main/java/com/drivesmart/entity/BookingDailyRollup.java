@@ -0,0 +1,66 @@
+package com.drivesmart.entity;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+// Per-day, per-status booking counts and revenue: bookings are counted on their start day and again on their end day
+@Entity
+@Table(name = "booking_daily_rollups",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"rollup_day", "status"}))
+public class BookingDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Column(name = "started_count", nullable = false)
+    private long startedCount;
+
+    @Column(name = "started_revenue", nullable = false)
+    private double startedRevenue;
+
+    @Column(name = "ended_count", nullable = false)
+    private long endedCount;
+
+    @Column(name = "ended_revenue", nullable = false)
+    private double endedRevenue;
+
+    public BookingDailyRollup() {
+    }
+
+    public BookingDailyRollup(LocalDate day, BookingStatus status) {
+        this.day = day;
+        this.status = status;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    public BookingStatus getStatus() { return status; }
+    public void setStatus(BookingStatus status) { this.status = status; }
+    public long getStartedCount() { return startedCount; }
+    public void setStartedCount(long startedCount) { this.startedCount = startedCount; }
+    public double getStartedRevenue() { return startedRevenue; }
+    public void setStartedRevenue(double startedRevenue) { this.startedRevenue = startedRevenue; }
+    public long getEndedCount() { return endedCount; }
+    public void setEndedCount(long endedCount) { this.endedCount = endedCount; }
+    public double getEndedRevenue() { return endedRevenue; }
+    public void setEndedRevenue(double endedRevenue) { this.endedRevenue = endedRevenue; }
+}
@@ -1,13 +1,16 @@
 package com.drivesmart.entity;
 
-import jakarta.persistence.Basic;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
@@ -15,12 +18,22 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+// Second-level cached; the image bytes are in CarImageBlob, so the cached state is a few hundred bytes
 @Entity
-@Table(name = "cars")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "cars", indexes = {
+        @Index(name = "idx_cars_price_per_day", columnList = "price_per_day")
+})
 public class Car {
+
+    // Ids each sequence call reserves
+    public static final int ID_ALLOCATION_SIZE = 50;
     
+    // Pooled sequence rather than IDENTITY, so Hibernate can batch inserts (CarIdSequence keeps it ahead of old rows)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cars_seq")
+    @SequenceGenerator(name = "cars_seq", sequenceName = "cars_seq", allocationSize = Car.ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Brand is required")
@@ -56,10 +69,9 @@ public class Car {
     @Column(name = "in_maintenance", nullable = false)
     private Boolean inMaintenance = false;
     
-    @Lob
-    @Basic(fetch = FetchType.LAZY)
-    @Column(name = "image_data", length = 10485760) // 10MB max
-    private byte[] imageData;
+    // SHA-256 of the image in the file store (CarImageStore); the legacy image_data column is read only by CarImageBlob
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
     
     @Column(name = "image_name")
     private String imageName;
@@ -109,8 +121,8 @@ public class Car {
     public Boolean getInMaintenance() { return inMaintenance; }
     public void setInMaintenance(Boolean inMaintenance) { this.inMaintenance = inMaintenance; }
     
-    public byte[] getImageData() { return imageData; }
-    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+    public String getImageHash() { return imageHash; }
+    public void setImageHash(String imageHash) { this.imageHash = imageHash; }
     
     public String getImageName() { return imageName; }
     public void setImageName(String imageName) { this.imageName = imageName; }
@@ -120,15 +132,23 @@ public class Car {
     
     // Helper method for backward compatibility
     public String getImageUrl() {
-        if (imageData != null && imageData.length > 0) {
-            return "/cars/image/" + this.id;
+        if (hasImage()) {
+            return "/cars/images/" + imageHash;
         }
         return "/images/default-car.png";
     }
     
+    // Small variant for list and search cards
+    public String getThumbnailUrl() {
+        if (hasImage()) {
+            return getImageUrl() + "?size=thumb";
+        }
+        return getImageUrl();
+    }
+    
     // Helper method to check if image exists
     public boolean hasImage() {
-        return imageData != null && imageData.length > 0;
+        return imageHash != null && !imageHash.isEmpty();
     }
     
     @Override
@@ -0,0 +1,30 @@
+package com.drivesmart.entity;
+
+import jakarta.persistence.Basic;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+// Legacy image column of the cars table, mapped separately so Car never loads it.
+// Only used to move old uploads into the file store (CarImageMigration).
+@Entity
+@Table(name = "cars")
+public class CarImageBlob {
+
+    @Id
+    private Long id;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "image_data", length = 10485760) // 10MB max
+    private byte[] imageData;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public byte[] getImageData() { return imageData; }
+    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+}
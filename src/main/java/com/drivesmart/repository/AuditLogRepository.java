@@ -1,8 +1,13 @@
 package com.drivesmart.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.drivesmart.entity.AuditLevel;
@@ -13,4 +18,29 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findAllByOrderByTimestampDesc();
     List<AuditLog> findByLevelOrderByTimestampDesc(AuditLevel level);
     List<AuditLog> findByUsernameContainingIgnoreCaseOrderByTimestampDesc(String username);
+
+    // Keyset page of entries older than (timestamp, id), newest first. pattern is a lower-case LIKE
+    // pattern, or null for no text filter
+    @Query("SELECT a FROM AuditLog a WHERE a.level IN :levels " +
+           "AND (:pattern IS NULL OR LOWER(a.username) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(a.action) LIKE :pattern ESCAPE '\\' OR LOWER(a.details) LIKE :pattern ESCAPE '\\') " +
+           "AND (a.timestamp < :timestamp OR (a.timestamp = :timestamp AND a.id < :id)) " +
+           "ORDER BY a.timestamp DESC, a.id DESC")
+    List<AuditLog> findPageBefore(@Param("levels") Collection<AuditLevel> levels,
+                                  @Param("pattern") String pattern,
+                                  @Param("timestamp") LocalDateTime timestamp,
+                                  @Param("id") Long id,
+                                  Pageable pageable);
+
+    // Keyset page of entries newer than (timestamp, id), oldest first
+    @Query("SELECT a FROM AuditLog a WHERE a.level IN :levels " +
+           "AND (:pattern IS NULL OR LOWER(a.username) LIKE :pattern ESCAPE '\\' " +
+           "OR LOWER(a.action) LIKE :pattern ESCAPE '\\' OR LOWER(a.details) LIKE :pattern ESCAPE '\\') " +
+           "AND (a.timestamp > :timestamp OR (a.timestamp = :timestamp AND a.id > :id)) " +
+           "ORDER BY a.timestamp ASC, a.id ASC")
+    List<AuditLog> findPageAfter(@Param("levels") Collection<AuditLevel> levels,
+                                 @Param("pattern") String pattern,
+                                 @Param("timestamp") LocalDateTime timestamp,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
 }
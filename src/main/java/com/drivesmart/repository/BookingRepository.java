@@ -1,10 +1,17 @@
 package com.drivesmart.repository;
 
+import com.drivesmart.dto.BookingSpan;
+import com.drivesmart.dto.RecentBooking;
 import com.drivesmart.entity.Booking;
 import com.drivesmart.entity.BookingStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,4 +26,70 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             List<BookingStatus> statuses,
             LocalDate end,
             LocalDate start);
+    long countByStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+            List<BookingStatus> statuses,
+            LocalDate end,
+            LocalDate start);
+
+    // Rows: status, booking count
+    @Query("SELECT b.status, COUNT(b) FROM Booking b GROUP BY b.status")
+    List<Object[]> countByStatus();
+
+    @Query("SELECT new com.drivesmart.dto.BookingSpan(b.id, b.car.id, b.startDate, b.endDate, b.status) " +
+           "FROM Booking b WHERE b.status IN :statuses")
+    List<BookingSpan> findSpansByStatusIn(@Param("statuses") Collection<BookingStatus> statuses);
+
+    // Rows: day, status, booking count, revenue
+    @Query("SELECT b.startDate, b.status, COUNT(b), SUM(b.totalPrice) FROM Booking b GROUP BY b.startDate, b.status")
+    List<Object[]> sumByStartDateAndStatus();
+
+    @Query("SELECT b.endDate, b.status, COUNT(b), SUM(b.totalPrice) FROM Booking b GROUP BY b.endDate, b.status")
+    List<Object[]> sumByEndDateAndStatus();
+
+    // Rows: status, booking count, revenue for bookings overlapping the range
+    @Query("SELECT b.status, COUNT(b), SUM(b.totalPrice) FROM Booking b " +
+           "WHERE b.startDate <= :end AND b.endDate >= :start GROUP BY b.status")
+    List<Object[]> sumOverlappingByStatus(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Rows: status, booking count, revenue for bookings starting in (:after, :day] and still running after :day.
+    // Walks idx_bookings_start_date_id over that window only
+    @Query("SELECT b.status, COUNT(b), SUM(b.totalPrice) FROM Booking b " +
+           "WHERE b.startDate > :after AND b.startDate <= :day AND b.endDate > :day GROUP BY b.status")
+    List<Object[]> sumRunningPast(@Param("after") LocalDate after, @Param("day") LocalDate day);
+
+    // Newest first, each filter ignored when null; walks idx_bookings_created_at_id when unfiltered
+    @Query("SELECT new com.drivesmart.dto.RecentBooking(b.id, u.id, u.fullName, c.id, CONCAT(c.brand, ' ', c.model), " +
+           "c.licensePlate, b.startDate, b.endDate, b.totalPrice, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.user u JOIN b.car c " +
+           "WHERE (:userId IS NULL OR u.id = :userId) AND (:carId IS NULL OR c.id = :carId) " +
+           "AND (:status IS NULL OR b.status = :status) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<RecentBooking> findRecent(@Param("userId") Long userId,
+                                   @Param("carId") Long carId,
+                                   @Param("status") BookingStatus status,
+                                   Pageable pageable);
+
+    // One page of the booking list as flat rows: a single joined select (plus a count when the page is full),
+    // however many users and cars the page spans. Sorted by the pageable, on Booking properties
+    @Query(value = "SELECT new com.drivesmart.dto.RecentBooking(b.id, u.id, u.fullName, c.id, " +
+                   "CONCAT(c.brand, ' ', c.model), c.licensePlate, b.startDate, b.endDate, b.totalPrice, " +
+                   "b.status, b.createdAt) " +
+                   "FROM Booking b JOIN b.user u JOIN b.car c " +
+                   "WHERE (:userId IS NULL OR u.id = :userId) AND (:status IS NULL OR b.status = :status)",
+           countQuery = "SELECT COUNT(b) FROM Booking b " +
+                   "WHERE (:userId IS NULL OR b.user.id = :userId) AND (:status IS NULL OR b.status = :status)")
+    Page<RecentBooking> findListPage(@Param("userId") Long userId,
+                                     @Param("status") BookingStatus status,
+                                     Pageable pageable);
+
+    // Newest first by id, keyset-paged below beforeId; each filter ignored when null
+    @Query("SELECT new com.drivesmart.dto.RecentBooking(b.id, u.id, u.fullName, c.id, CONCAT(c.brand, ' ', c.model), " +
+           "c.licensePlate, b.startDate, b.endDate, b.totalPrice, b.status, b.createdAt) " +
+           "FROM Booking b JOIN b.user u JOIN b.car c " +
+           "WHERE b.id < :beforeId AND (:userId IS NULL OR u.id = :userId) AND (:status IS NULL OR b.status = :status) " +
+           "ORDER BY b.id DESC")
+    List<RecentBooking> findBefore(@Param("beforeId") long beforeId,
+                                   @Param("userId") Long userId,
+                                   @Param("status") BookingStatus status,
+                                   Pageable limit);
 }
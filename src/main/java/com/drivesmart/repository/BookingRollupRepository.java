@@ -0,0 +1,37 @@
+package com.drivesmart.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.drivesmart.entity.BookingDailyRollup;
+import com.drivesmart.entity.BookingStatus;
+
+@Repository
+public interface BookingRollupRepository extends JpaRepository<BookingDailyRollup, Long> {
+
+    @Modifying
+    @Query("UPDATE BookingDailyRollup r SET r.startedCount = r.startedCount + :count, " +
+           "r.startedRevenue = r.startedRevenue + :revenue WHERE r.day = :day AND r.status = :status")
+    int addStarted(@Param("day") LocalDate day, @Param("status") BookingStatus status,
+                   @Param("count") long count, @Param("revenue") double revenue);
+
+    @Modifying
+    @Query("UPDATE BookingDailyRollup r SET r.endedCount = r.endedCount + :count, " +
+           "r.endedRevenue = r.endedRevenue + :revenue WHERE r.day = :day AND r.status = :status")
+    int addEnded(@Param("day") LocalDate day, @Param("status") BookingStatus status,
+                 @Param("count") long count, @Param("revenue") double revenue);
+
+    // Rows: status, ended count/revenue in [:start, :horizon], started count/revenue in (:end, :horizon]
+    @Query("SELECT r.status, SUM(r.endedCount), SUM(r.endedRevenue), " +
+           "SUM(CASE WHEN r.day > :end THEN r.startedCount ELSE 0 END), " +
+           "SUM(CASE WHEN r.day > :end THEN r.startedRevenue ELSE 0 END) " +
+           "FROM BookingDailyRollup r WHERE r.day >= :start AND r.day <= :horizon GROUP BY r.status")
+    List<Object[]> sumOverlapping(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                  @Param("horizon") LocalDate horizon);
+}
@@ -0,0 +1,22 @@
+package com.drivesmart.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.drivesmart.entity.CarImageBlob;
+
+@Repository
+public interface CarImageBlobRepository extends JpaRepository<CarImageBlob, Long> {
+
+    @Query("SELECT b.id FROM CarImageBlob b WHERE b.imageData IS NOT NULL")
+    List<Long> findIdsWithImageData();
+
+    @Modifying
+    @Query("UPDATE CarImageBlob b SET b.imageData = NULL WHERE b.id = :id")
+    int clearImageData(@Param("id") Long id);
+}
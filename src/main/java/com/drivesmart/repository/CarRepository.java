@@ -1,30 +1,102 @@
 package com.drivesmart.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.entity.BookingStatus;
 import com.drivesmart.entity.Car;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
-    List<Car> findByIsAvailableTrue();
-    
     boolean existsByLicensePlate(String licensePlate);
     
     // Add this method to fix the error
     boolean existsByLicensePlateIgnoreCase(String licensePlate);
     
-    List<Car> findByBrandContainingIgnoreCase(String brand);
-    
-    // Add this custom query method to fix the error
-    @Query("SELECT c FROM Car c WHERE " +
-           "LOWER(c.brand) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.model) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.licensePlate) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(c.color) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Car> searchCars(@Param("query") String query);
+    String SUMMARY = "SELECT new com.drivesmart.dto.CarSummary(c.id, c.brand, c.model, c.licensePlate, c.year, "
+            + "c.color, c.pricePerDay, c.isAvailable, c.inMaintenance, c.imageHash) FROM Car c";
+
+    @Query(SUMMARY + " ORDER BY c.id")
+    List<CarSummary> findAllSummaries();
+
+    // Held in the query cache until any write to cars
+    @Query(SUMMARY + " WHERE c.isAvailable = true ORDER BY c.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "car-queries")
+    })
+    List<CarSummary> findAvailableSummaries();
+
+    @Query(SUMMARY + " WHERE LOWER(c.brand) LIKE LOWER(CONCAT('%', :brand, '%')) ORDER BY c.id")
+    List<CarSummary> findSummariesByBrand(@Param("brand") String brand);
+
+    // Unordered; callers put them back in their own order
+    @Query(SUMMARY + " WHERE c.id IN :ids")
+    List<CarSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // id, brand, model, licensePlate, color for the in-memory search index
+    @Query("SELECT c.id, c.brand, c.model, c.licensePlate, c.color FROM Car c ORDER BY c.id")
+    List<Object[]> findSearchFields();
+
+    // Every plate upper-cased, for duplicate checks during a bulk import
+    @Query("SELECT UPPER(c.licensePlate) FROM Car c")
+    List<String> findAllLicensePlates();
+
+    // One page after the given id, in id order: keyset paging on the primary key, so a deep page costs
+    // the same as the first
+    @Query(SUMMARY + " WHERE c.id > :afterId ORDER BY c.id")
+    List<CarSummary> findSummariesAfter(@Param("afterId") long afterId, Pageable limit);
+
+    // Bookable cars with no booking in the given statuses overlapping [start, end].
+    // brandPattern is a lower-case LIKE pattern, or null for any brand
+    String FREE_BETWEEN = "c.isAvailable = true AND c.inMaintenance = false"
+            + " AND (:brandPattern IS NULL OR LOWER(c.brand) LIKE :brandPattern ESCAPE '\\')"
+            + " AND c.pricePerDay BETWEEN :minPrice AND :maxPrice"
+            + " AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.car = c AND b.status IN :statuses"
+            + " AND b.startDate <= :end AND b.endDate >= :start)";
+
+    // One anti-join, filtered and paged in the database
+    @Query(value = SUMMARY + " WHERE " + FREE_BETWEEN,
+            countQuery = "SELECT COUNT(c) FROM Car c WHERE " + FREE_BETWEEN)
+    Page<CarSummary> findAvailableBetween(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                   @Param("brandPattern") String brandPattern,
+                                   @Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice,
+                                   @Param("statuses") Collection<BookingStatus> statuses, Pageable pageable);
+
+    // Same filter, keyset-paged in id order with no count query
+    @Query(SUMMARY + " WHERE c.id > :afterId AND " + FREE_BETWEEN + " ORDER BY c.id")
+    List<CarSummary> findAvailableBetweenAfter(@Param("start") LocalDate start, @Param("end") LocalDate end,
+                                               @Param("brandPattern") String brandPattern,
+                                               @Param("minPrice") double minPrice, @Param("maxPrice") double maxPrice,
+                                               @Param("statuses") Collection<BookingStatus> statuses,
+                                               @Param("afterId") long afterId, Pageable limit);
+
+    @Query("SELECT c.imageHash FROM Car c WHERE c.id = :id")
+    Optional<String> findImageHashById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Car c SET c.imageHash = :hash WHERE c.id = :id")
+    int updateImageHash(@Param("id") Long id, @Param("hash") String hash);
+
+    // Row lock (SELECT ... FOR UPDATE) that serialises booking writes for one car across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Car c WHERE c.id = :id")
+    Optional<Car> findByIdForUpdate(@Param("id") Long id);
 }
\ No newline at end of file
@@ -3,12 +3,18 @@ package com.drivesmart.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.drivesmart.entity.User;
 import com.drivesmart.entity.UserRole;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
@@ -16,6 +22,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     boolean existsByEmail(String email);
     
+    // Query cache holds the ids, the users themselves come from the entity cache; any write to users invalidates it
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "user-queries")
+    })
     List<User> findByRole(UserRole role);
     
     Optional<User> findByEmailAndIsActiveTrue(String email); // ACTIVE USERS ONLY
@@ -25,4 +36,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Optional: Find all active users
     List<User> findByIsActiveTrue();
+
+    List<User> findTop5ByOrderByIdDesc();
+
+    // Rows: role, active flag, user count
+    @Query("SELECT u.role, u.isActive, COUNT(u) FROM User u GROUP BY u.role, u.isActive")
+    List<Object[]> countByRoleAndActive();
+
+    // Rows: email, role, active flag
+    @Query("SELECT u.email, u.role, u.isActive FROM User u WHERE u.id = :id")
+    List<Object[]> findStateById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+package com.drivesmart.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.entity.AuditLevel;
+import com.drivesmart.entity.AuditLog;
+
+/**
+ * Buffers audit events in a bounded queue and writes them to audit_logs in JDBC
+ * batches from a single background thread, so request threads never wait on an INSERT.
+ * A batch is flushed when it is full or when its oldest event has waited flush-interval.
+ */
+@Component
+public class AuditEventWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditEventWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_logs (timestamp, username, action, details, ip, level) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // DROP: reject when full. BLOCK: wait up to block-timeout. SAMPLE: past 75% full keep 1 in 10
+    // SUCCESS events and let WARNING/DANGER wait up to block-timeout.
+    public enum OverflowPolicy { DROP, BLOCK, SAMPLE }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AuditLog> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long blockTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public AuditEventWriter(JdbcTemplate jdbcTemplate,
+                            @Value("${drivesmart.audit.queue-capacity:8192}") int capacity,
+                            @Value("${drivesmart.audit.batch-size:200}") int batchSize,
+                            @Value("${drivesmart.audit.flush-interval-ms:1000}") long flushIntervalMs,
+                            @Value("${drivesmart.audit.block-timeout-ms:50}") long blockTimeoutMs,
+                            @Value("${drivesmart.audit.overflow-policy:SAMPLE}") OverflowPolicy overflowPolicy) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacity = capacity;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    // Never blocks longer than block-timeout; returns false when the event was dropped
+    public boolean submit(AuditLog event) {
+        if (event.getTimestamp() == null) {
+            event.setTimestamp(LocalDateTime.now());
+        }
+        if (event.getLevel() == null) {
+            event.setLevel(AuditLevel.SUCCESS);
+        }
+        boolean accepted;
+        try {
+            accepted = switch (overflowPolicy) {
+                case DROP -> queue.offer(event);
+                case BLOCK -> queue.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                case SAMPLE -> offerSampled(event);
+            };
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        (accepted ? queued : dropped).incrementAndGet();
+        return accepted;
+    }
+
+    private boolean offerSampled(AuditLog event) throws InterruptedException {
+        if (event.getLevel() != AuditLevel.SUCCESS) {
+            return queue.offer(event, blockTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        if (queue.size() * 4 >= capacity * 3 && ThreadLocalRandom.current().nextInt(10) != 0) {
+            return false;
+        }
+        return queue.offer(event);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queued", queued.get());
+        stats.put("flushed", flushed.get());
+        stats.put("dropped", dropped.get());
+        stats.put("failed", failed.get());
+        stats.put("pending", (long) queue.size());
+        return stats;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runFlusher, "audit-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever is still queued goes out on the stopping thread
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Lower than the web server lifecycles: stops after requests have drained, before the DataSource closes
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runFlusher() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AuditLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditLog next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() interrupts; the pending batch is written below and the rest drained by stop()
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setTimestamp(1, Timestamp.valueOf(event.getTimestamp()));
+                ps.setString(2, event.getUsername());
+                ps.setString(3, event.getAction());
+                ps.setString(4, event.getDetails());
+                ps.setString(5, event.getIp());
+                ps.setString(6, event.getLevel().name());
+            });
+            flushed.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.error("Failed to write {} audit events", batch.size(), e);
+        }
+    }
+}
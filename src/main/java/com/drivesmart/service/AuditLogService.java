@@ -1,11 +1,22 @@
 package com.drivesmart.service;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
+import com.drivesmart.dto.AuditLogPage;
 import com.drivesmart.entity.AuditLevel;
 import com.drivesmart.entity.AuditLog;
 import com.drivesmart.repository.AuditLogRepository;
@@ -13,28 +24,111 @@ import com.drivesmart.repository.AuditLogRepository;
 @Service
 public class AuditLogService {
 
+    // Start of the keyset walk: newer than any stored entry
+    private static final LocalDateTime NEWEST = LocalDateTime.of(9999, 12, 31, 23, 59);
+
     private final AuditLogRepository repo;
+    private final AuditEventWriter writer;
 
-    public AuditLogService(AuditLogRepository repo) {
+    public AuditLogService(AuditLogRepository repo, AuditEventWriter writer) {
         this.repo = repo;
+        this.writer = writer;
+    }
+
+    // Records an event for the current user and request; queued once the caller's transaction
+    // commits, so a rolled-back change is never audited, and written in the background
+    public void record(String action, String details, AuditLevel level) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        record(auth != null ? auth.getName() : "system", action, details, level);
+    }
+
+    public void record(String username, String action, String details, AuditLevel level) {
+        AuditLog event = new AuditLog();
+        event.setTimestamp(LocalDateTime.now());
+        event.setUsername(truncate(username != null ? username : "system", 255));
+        event.setAction(truncate(action, 255));
+        event.setDetails(truncate(details, 1000));
+        event.setIp(currentClientIp());
+        event.setLevel(level);
+        TransactionHooks.afterCommit(() -> writer.submit(event));
+    }
+
+    public Map<String, Long> getWriterStats() {
+        return writer.getStats();
+    }
+
+    /**
+     * Returns one page of logs, newest first. Pass the previous page's next cursor as
+     * {@code before} to go deeper, or its previous cursor as {@code after} to go back;
+     * with neither the first page is returned. Filtering and paging run in the database.
+     */
+    public AuditLogPage getAuditLogs(String search, AuditLevel level, String before, String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, 200));
+        Set<AuditLevel> levels = level != null ? EnumSet.of(level) : EnumSet.allOf(AuditLevel.class);
+        String pattern = LikePatterns.contains(search);
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        Cursor afterCursor = Cursor.parse(after);
+        if (afterCursor != null) {
+            List<AuditLog> newer = new ArrayList<>(repo.findPageAfter(levels, pattern,
+                    afterCursor.timestamp(), afterCursor.id(), limit));
+            boolean hasNewer = newer.size() > pageSize;
+            if (hasNewer) {
+                newer = newer.subList(0, pageSize);
+            }
+            Collections.reverse(newer);
+            return page(newer, true, hasNewer);
+        }
+
+        Cursor beforeCursor = Cursor.parse(before);
+        List<AuditLog> older = beforeCursor != null
+                ? repo.findPageBefore(levels, pattern, beforeCursor.timestamp(), beforeCursor.id(), limit)
+                : repo.findPageBefore(levels, pattern, NEWEST, Long.MAX_VALUE, limit);
+        boolean hasOlder = older.size() > pageSize;
+        return page(hasOlder ? older.subList(0, pageSize) : older, hasOlder, beforeCursor != null);
+    }
+
+    private static AuditLogPage page(List<AuditLog> logs, boolean hasOlder, boolean hasNewer) {
+        if (logs.isEmpty()) {
+            return new AuditLogPage(logs, null, null);
+        }
+        String next = hasOlder ? Cursor.of(logs.get(logs.size() - 1)) : null;
+        String previous = hasNewer ? Cursor.of(logs.get(0)) : null;
+        return new AuditLogPage(logs, next, previous);
     }
 
-    public List<AuditLog> getAuditLogs(String search, AuditLevel level, int page, int size) {
-        List<AuditLog> base = repo.findAllByOrderByTimestampDesc();
-        if (level != null) {
-            base = base.stream().filter(l -> Objects.equals(l.getLevel(), level)).collect(Collectors.toList());
+    private static String currentClientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return attributes.getRequest().getRemoteAddr();
         }
-        if (search != null && !search.isBlank()) {
-            String q = search.toLowerCase();
-            base = base.stream().filter(l ->
-                    (l.getUsername() != null && l.getUsername().toLowerCase().contains(q)) ||
-                    (l.getAction() != null && l.getAction().toLowerCase().contains(q)) ||
-                    (l.getDetails() != null && l.getDetails().toLowerCase().contains(q))
-            ).collect(Collectors.toList());
+        return null;
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+
+    // Cursor text is "<timestamp>_<id>" of the boundary entry
+    private record Cursor(LocalDateTime timestamp, Long id) {
+
+        static String of(AuditLog log) {
+            return log.getTimestamp() + "_" + log.getId();
+        }
+
+        static Cursor parse(String value) {
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            int split = value.lastIndexOf('_');
+            if (split < 0) {
+                return null;
+            }
+            try {
+                return new Cursor(LocalDateTime.parse(value.substring(0, split)),
+                        Long.parseLong(value.substring(split + 1)));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                return null;
+            }
         }
-        int from = Math.max(0, page * size);
-        int to = Math.min(base.size(), from + size);
-        if (from >= to) return java.util.Collections.emptyList();
-        return base.subList(from, to);
     }
 }
@@ -0,0 +1,221 @@
+package com.drivesmart.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.dto.BookingSpan;
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.repository.BookingRepository;
+
+/**
+ * In-memory index of open bookings (pending, confirmed, active) grouped by car.
+ * Each car keeps an immutable array of intervals sorted by start date, so readers
+ * never lock; writers replace the array under a single lock.
+ */
+@Component
+public class BookingIntervalIndex {
+
+    // Completed and cancelled bookings never block a car, so they are not kept
+    static final Set<BookingStatus> OPEN_STATUSES = Collections.unmodifiableSet(
+            EnumSet.of(BookingStatus.PENDING, BookingStatus.CONFIRMED, BookingStatus.ACTIVE));
+
+    private final BookingRepository bookingRepository;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Map<Long, CarIntervals> byCar = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> carByBooking = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    public boolean isBooked(Long carId, LocalDate start, LocalDate end, Set<BookingStatus> statuses) {
+        ensureLoaded();
+        CarIntervals intervals = byCar.get(carId);
+        return intervals != null && intervals.overlaps(start.toEpochDay(), end.toEpochDay(), statuses);
+    }
+
+    // Single pass over the fleet: ids of cars with a booking in one of the statuses covering the date
+    public Set<Long> carsBookedOn(LocalDate date, Set<BookingStatus> statuses) {
+        ensureLoaded();
+        long day = date.toEpochDay();
+        Set<Long> result = new HashSet<>();
+        byCar.forEach((carId, intervals) -> {
+            if (intervals.overlaps(day, day, statuses)) {
+                result.add(carId);
+            }
+        });
+        return result;
+    }
+
+    public long countBookingsOn(LocalDate date, Set<BookingStatus> statuses) {
+        ensureLoaded();
+        long day = date.toEpochDay();
+        long count = 0;
+        for (CarIntervals intervals : byCar.values()) {
+            count += intervals.count(day, statuses);
+        }
+        return count;
+    }
+
+    // Called after a booking is created or changes status; closed bookings drop out of the index
+    public void update(Booking booking) {
+        if (booking == null || booking.getId() == null || booking.getCar() == null) {
+            return;
+        }
+        update(new BookingSpan(booking.getId(), booking.getCar().getId(),
+                booking.getStartDate(), booking.getEndDate(), booking.getStatus()));
+    }
+
+    public void update(BookingSpan span) {
+        ensureLoaded();
+        writeLock.lock();
+        try {
+            apply(byCar, carByBooking, span);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            Map<Long, CarIntervals> freshByCar = new ConcurrentHashMap<>();
+            Map<Long, Long> freshCarByBooking = new ConcurrentHashMap<>();
+            for (BookingSpan span : bookingRepository.findSpansByStatusIn(OPEN_STATUSES)) {
+                apply(freshByCar, freshCarByBooking, span);
+            }
+            byCar = freshByCar;
+            carByBooking = freshCarByBooking;
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            writeLock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private static void apply(Map<Long, CarIntervals> byCar, Map<Long, Long> carByBooking, BookingSpan span) {
+        Long previousCar = carByBooking.remove(span.bookingId());
+        if (previousCar != null) {
+            CarIntervals previous = byCar.get(previousCar);
+            if (previous != null) {
+                CarIntervals remaining = previous.without(span.bookingId());
+                if (remaining.isEmpty()) {
+                    byCar.remove(previousCar);
+                } else {
+                    byCar.put(previousCar, remaining);
+                }
+            }
+        }
+        if (span.carId() == null || span.startDate() == null || span.endDate() == null
+                || !OPEN_STATUSES.contains(span.status())) {
+            return;
+        }
+        Interval interval = new Interval(span.bookingId(), span.startDate().toEpochDay(),
+                span.endDate().toEpochDay(), span.status());
+        byCar.put(span.carId(), byCar.getOrDefault(span.carId(), CarIntervals.EMPTY).with(interval));
+        carByBooking.put(span.bookingId(), span.carId());
+    }
+
+    private record Interval(long bookingId, long start, long end, BookingStatus status) {
+    }
+
+    // Immutable; intervals sorted by start with a running max of end dates for early exit
+    private static final class CarIntervals {
+        static final CarIntervals EMPTY = new CarIntervals(new Interval[0]);
+
+        private final Interval[] intervals;
+        private final long[] maxEndUpTo;
+
+        CarIntervals(Interval[] intervals) {
+            this.intervals = intervals;
+            this.maxEndUpTo = new long[intervals.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < intervals.length; i++) {
+                max = Math.max(max, intervals[i].end());
+                maxEndUpTo[i] = max;
+            }
+        }
+
+        boolean isEmpty() {
+            return intervals.length == 0;
+        }
+
+        CarIntervals with(Interval interval) {
+            Interval[] copy = Arrays.copyOf(intervals, intervals.length + 1);
+            int i = intervals.length;
+            while (i > 0 && copy[i - 1].start() > interval.start()) {
+                copy[i] = copy[i - 1];
+                i--;
+            }
+            copy[i] = interval;
+            return new CarIntervals(copy);
+        }
+
+        CarIntervals without(long bookingId) {
+            return new CarIntervals(Arrays.stream(intervals)
+                    .filter(i -> i.bookingId() != bookingId)
+                    .toArray(Interval[]::new));
+        }
+
+        boolean overlaps(long start, long end, Set<BookingStatus> statuses) {
+            for (int i = lastStartingOnOrBefore(end); i >= 0 && maxEndUpTo[i] >= start; i--) {
+                Interval interval = intervals[i];
+                if (interval.end() >= start && statuses.contains(interval.status())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int count(long day, Set<BookingStatus> statuses) {
+            int count = 0;
+            for (int i = lastStartingOnOrBefore(day); i >= 0 && maxEndUpTo[i] >= day; i--) {
+                Interval interval = intervals[i];
+                if (interval.end() >= day && statuses.contains(interval.status())) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private int lastStartingOnOrBefore(long day) {
+            int lo = 0;
+            int hi = intervals.length - 1;
+            int found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (intervals[mid].start() <= day) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.drivesmart.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingDailyRollup;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.BookingRollupRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Maintains booking_daily_rollups. Every booking adds to the row of its start day and
+ * the row of its end day, so per status the started and ended totals over all days are
+ * equal, and the bookings overlapping [start, end] are (ended on or after start) -
+ * (started after end): the second set lies inside the first. No booking lasts more than
+ * drivesmart.bookings.max-days, so both sums stop at end + max-days - 1; the only
+ * bookings they then miss started after end and are still running at that horizon,
+ * which one index range over the bookings table adds back. A report reads the rows of
+ * its range plus one booking length, however long the history before or after it.
+ */
+@Service
+public class BookingRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingRollupService.class);
+
+    // Insert-if-absent for an empty (day, status) row
+    private static final String INSERT_ON_CONFLICT_SQL = "INSERT INTO booking_daily_rollups "
+            + "(rollup_day, status, started_count, started_revenue, ended_count, ended_revenue) "
+            + "VALUES (?, ?, 0, 0, 0, 0) ON CONFLICT (rollup_day, status) DO NOTHING";
+    private static final String MERGE_SQL = "MERGE INTO booking_daily_rollups r "
+            + "USING (VALUES (CAST(? AS DATE), CAST(? AS VARCHAR(255)))) s (rollup_day, status) "
+            + "ON r.rollup_day = s.rollup_day AND r.status = s.status "
+            + "WHEN NOT MATCHED THEN INSERT (rollup_day, status, started_count, started_revenue, ended_count, ended_revenue) "
+            + "VALUES (s.rollup_day, s.status, 0, 0, 0, 0)";
+
+    private final BookingRollupRepository rollupRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newRowTransaction;
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertIfAbsentSql;
+    private final int maxBookingDays;
+
+    // (day, status) rows known to exist, so the hot path skips the existence query
+    private final Set<String> knownRows = ConcurrentHashMap.newKeySet();
+
+    public BookingRollupService(BookingRollupRepository rollupRepository,
+                                BookingRepository bookingRepository,
+                                PlatformTransactionManager transactionManager,
+                                JdbcTemplate jdbcTemplate,
+                                EntityManagerFactory entityManagerFactory,
+                                @Value("${drivesmart.bookings.max-days:90}") int maxBookingDays) {
+        this.rollupRepository = rollupRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newRowTransaction = new TransactionTemplate(transactionManager);
+        this.newRowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.jdbcTemplate = jdbcTemplate;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.insertIfAbsentSql = dialect instanceof PostgreSQLDialect ? INSERT_ON_CONFLICT_SQL : MERGE_SQL;
+        this.maxBookingDays = Math.max(1, maxBookingDays);
+    }
+
+    public record StatusTotals(long count, double revenue) {
+        static final StatusTotals EMPTY = new StatusTotals(0, 0.0);
+    }
+
+    // Longest booking, in days, that createBooking accepts
+    public int getMaxBookingDays() {
+        return maxBookingDays;
+    }
+
+    // Totals per status for bookings overlapping [start, end]; statuses without bookings are absent
+    public Map<BookingStatus, StatusTotals> totalsOverlapping(LocalDate start, LocalDate end) {
+        LocalDate horizon = end.plusDays(maxBookingDays - 1);
+        Map<BookingStatus, StatusTotals> sums = new EnumMap<>(BookingStatus.class);
+        for (Object[] row : rollupRepository.sumOverlapping(start, end, horizon)) {
+            add(sums, (BookingStatus) row[0], toLong(row[1]) - toLong(row[3]), toDouble(row[2]) - toDouble(row[4]));
+        }
+        for (Object[] row : bookingRepository.sumRunningPast(end, horizon)) {
+            add(sums, (BookingStatus) row[0], toLong(row[1]), toDouble(row[2]));
+        }
+        Map<BookingStatus, StatusTotals> totals = new EnumMap<>(BookingStatus.class);
+        sums.forEach((status, t) -> {
+            if (t.count() > 0) {
+                totals.put(status, t);
+            }
+        });
+        return totals;
+    }
+
+    public static StatusTotals totalsFor(Map<BookingStatus, StatusTotals> totals, BookingStatus... statuses) {
+        long count = 0;
+        double revenue = 0.0;
+        for (BookingStatus status : statuses) {
+            StatusTotals t = totals.getOrDefault(status, StatusTotals.EMPTY);
+            count += t.count();
+            revenue += t.revenue();
+        }
+        return new StatusTotals(count, revenue);
+    }
+
+    // Create the rows a booking in this status will touch. Call it before the transaction that
+    // records the booking, so the REQUIRES_NEW insert never holds a second connection
+    public void prepare(LocalDate startDate, LocalDate endDate, BookingStatus status) {
+        ensureRow(startDate, status);
+        ensureRow(endDate, status);
+    }
+
+    // Must run inside the transaction that inserts the booking
+    public void recordCreated(Booking booking) {
+        apply(booking, booking.getStatus(), 1);
+    }
+
+    // Must run inside the transaction that changes the booking's status, after prepare for the new status
+    public void recordStatusChange(Booking booking, BookingStatus previousStatus) {
+        if (previousStatus == booking.getStatus()) {
+            return;
+        }
+        if (previousStatus != null) {
+            apply(booking, previousStatus, -1);
+        }
+        apply(booking, booking.getStatus(), 1);
+    }
+
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(tx -> {
+            rollupRepository.deleteAllInBatch();
+            knownRows.clear();
+            Map<String, BookingDailyRollup> rows = new HashMap<>();
+            for (Object[] row : bookingRepository.sumByStartDateAndStatus()) {
+                BookingDailyRollup rollup = rows.computeIfAbsent(key((LocalDate) row[0], (BookingStatus) row[1]),
+                        k -> new BookingDailyRollup((LocalDate) row[0], (BookingStatus) row[1]));
+                rollup.setStartedCount(toLong(row[2]));
+                rollup.setStartedRevenue(toDouble(row[3]));
+            }
+            for (Object[] row : bookingRepository.sumByEndDateAndStatus()) {
+                BookingDailyRollup rollup = rows.computeIfAbsent(key((LocalDate) row[0], (BookingStatus) row[1]),
+                        k -> new BookingDailyRollup((LocalDate) row[0], (BookingStatus) row[1]));
+                rollup.setEndedCount(toLong(row[2]));
+                rollup.setEndedRevenue(toDouble(row[3]));
+            }
+            rollupRepository.saveAll(rows.values());
+            knownRows.addAll(rows.keySet());
+        });
+        log.info("Rebuilt booking rollups");
+    }
+
+    // Compares rollup totals with a direct aggregate over the bookings table
+    public boolean verify(LocalDate start, LocalDate end) {
+        Map<BookingStatus, StatusTotals> fromRollups = totalsOverlapping(start, end);
+        boolean consistent = true;
+        for (Object[] row : bookingRepository.sumOverlappingByStatus(start, end)) {
+            BookingStatus status = (BookingStatus) row[0];
+            StatusTotals expected = new StatusTotals(toLong(row[1]), toDouble(row[2]));
+            StatusTotals actual = fromRollups.remove(status);
+            if (actual == null || actual.count() != expected.count()
+                    || Math.abs(actual.revenue() - expected.revenue()) > 0.005) {
+                log.warn("Booking rollup mismatch for {} in {}..{}: rollup={} bookings={}",
+                        status, start, end, actual, expected);
+                consistent = false;
+            }
+        }
+        if (!fromRollups.isEmpty()) {
+            log.warn("Booking rollups report statuses with no bookings in {}..{}: {}", start, end, fromRollups);
+            consistent = false;
+        }
+        return consistent;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (rollupRepository.count() == 0 && bookingRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private void apply(Booking booking, BookingStatus status, int sign) {
+        double revenue = sign * Objects.requireNonNullElse(booking.getTotalPrice(), 0.0);
+        if (rollupRepository.addStarted(booking.getStartDate(), status, sign, revenue) == 0) {
+            throw missingRow(booking.getStartDate(), status);
+        }
+        if (rollupRepository.addEnded(booking.getEndDate(), status, sign, revenue) == 0) {
+            throw missingRow(booking.getEndDate(), status);
+        }
+    }
+
+    // Only a concurrent rebuild can get here; failing rolls the booking change back instead of
+    // opening a nested transaction while the caller holds its row locks
+    private IllegalStateException missingRow(LocalDate day, BookingStatus status) {
+        knownRows.remove(key(day, status));
+        return new IllegalStateException("Booking rollup row " + key(day, status) + " is missing; retry the change");
+    }
+
+    private static void add(Map<BookingStatus, StatusTotals> sums, BookingStatus status, long count, double revenue) {
+        StatusTotals t = sums.getOrDefault(status, StatusTotals.EMPTY);
+        sums.put(status, new StatusTotals(t.count() + count, t.revenue() + revenue));
+    }
+
+    // Inserts an empty row in its own transaction unless it exists. PostgreSQL's ON CONFLICT never
+    // collides; elsewhere two MERGEs can still race, and the loser simply finds the row there
+    private void ensureRow(LocalDate day, BookingStatus status) {
+        String key = key(day, status);
+        if (knownRows.contains(key)) {
+            return;
+        }
+        try {
+            newRowTransaction.executeWithoutResult(tx ->
+                    jdbcTemplate.update(insertIfAbsentSql, Date.valueOf(day), status.name()));
+        } catch (DuplicateKeyException e) {
+            log.debug("Rollup row {} created concurrently", key);
+        }
+        knownRows.add(key);
+    }
+
+    private static String key(LocalDate day, BookingStatus status) {
+        return day + "|" + status;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static double toDouble(Object value) {
+        return value == null ? 0.0 : ((Number) value).doubleValue();
+    }
+}
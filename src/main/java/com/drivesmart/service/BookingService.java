@@ -2,17 +2,25 @@ package com.drivesmart.service;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.dto.RecentBooking;
+import com.drivesmart.entity.AuditLevel;
 import com.drivesmart.entity.Booking;
 import com.drivesmart.entity.BookingStatus;
 import com.drivesmart.entity.Car;
@@ -20,6 +28,7 @@ import com.drivesmart.entity.User;
 import com.drivesmart.repository.BookingRepository;
 import com.drivesmart.repository.CarRepository;
 import com.drivesmart.repository.UserRepository;
+import com.drivesmart.service.BookingRollupService.StatusTotals;
 
 @Service
 public class BookingService {
@@ -33,6 +42,36 @@ public class BookingService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BookingIntervalIndex bookingIndex;
+
+    @Autowired
+    private CarLockStripes carLocks;
+
+    @Autowired
+    private BookingRollupService rollupService;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private DashboardStats dashboardStats;
+
+    @Autowired
+    private RecentBookingsFeed recentBookings;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static final List<BookingStatus> OPEN_STATUS_LIST =
+            List.copyOf(BookingIntervalIndex.OPEN_STATUSES);
+
+    private static final Set<BookingStatus> COUNTED_AS_ACTIVE =
+            EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.ACTIVE);
+
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
@@ -41,41 +80,127 @@ public class BookingService {
         return bookingRepository.findByUserId(userId);
     }
 
+    // A page of the booking list, read as flat rows in one query; userId and status may be null
+    public Page<RecentBooking> getBookingPage(Long userId, BookingStatus status, @NonNull Pageable pageable) {
+        return bookingRepository.findListPage(userId, status, pageable);
+    }
+
+    // Up to limit bookings with an id below beforeId, newest first; userId and status may be null
+    public List<RecentBooking> getBookingsBefore(long beforeId, Long userId, BookingStatus status, int limit) {
+        return bookingRepository.findBefore(beforeId, userId, status, PageRequest.of(0, limit));
+    }
+
     public Optional<Booking> getBookingById(@NonNull Long id) {
         return bookingRepository.findById(id);
     }
 
     public Booking createBooking(@NonNull Long userId, @NonNull Long carId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new RuntimeException("End date must be on or after the start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= rollupService.getMaxBookingDays()) {
+            throw new RuntimeException("Bookings can last at most " + rollupService.getMaxBookingDays() + " days");
+        }
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        Car car = carRepository.findById(carId)
-                .orElseThrow(() -> new RuntimeException("Car not found"));
 
-        if (!isCarAvailable(carId, startDate, endDate)) {
+        // Cheap rejection for obvious conflicts before queuing for the car lock
+        if (bookingIndex.isBooked(carId, startDate, endDate, BookingIntervalIndex.OPEN_STATUSES)) {
             throw new RuntimeException("Car is not available for the selected dates");
         }
 
-        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
-        double totalPrice = days * car.getPricePerDay();
+        rollupService.prepare(startDate, endDate, BookingStatus.CONFIRMED);
+
+        // Same-car writers queue on the stripe; the row lock covers other app instances
+        ReentrantLock lock = carLocks.lockFor(carId);
+        lock.lock();
+        try {
+            Booking saved = transactionTemplate.execute(tx -> {
+                Car car = carRepository.findByIdForUpdate(carId)
+                        .orElseThrow(() -> new RuntimeException("Car not found"));
+                if (!car.getIsAvailable() || Boolean.TRUE.equals(car.getInMaintenance())
+                        || bookingRepository.existsByCarIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                                carId, OPEN_STATUS_LIST, endDate, startDate)) {
+                    throw new RuntimeException("Car is not available for the selected dates");
+                }
+
+                long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+                double totalPrice = days * car.getPricePerDay();
 
-        Booking booking = new Booking(user, car, startDate, endDate, totalPrice);
-        booking.setStatus(BookingStatus.CONFIRMED);
-        
-        return bookingRepository.save(booking);
+                Booking booking = new Booking(user, car, startDate, endDate, totalPrice);
+                booking.setStatus(BookingStatus.CONFIRMED);
+                Booking created = bookingRepository.save(booking);
+                rollupService.recordCreated(created);
+                dashboardStats.bookingCreated(created);
+                inMemoryViewsAfterCommit(created);
+                return created;
+            });
+            dataVersions.changed(DataVersions.Aggregate.BOOKING);
+            auditLogService.record("BOOKING_CREATED", "Booking #" + saved.getId() + " for car #" + carId
+                    + " from " + startDate + " to " + endDate, AuditLevel.SUCCESS);
+            return saved;
+        } finally {
+            lock.unlock();
+        }
     }
 
     public Booking updateBookingStatus(@NonNull Long bookingId, BookingStatus status) {
-        Booking booking = bookingRepository.findById(bookingId)
+        // Dates never change, so the rollup rows for the new status can be created up front
+        Booking current = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
-        booking.setStatus(status);
-        return bookingRepository.save(booking);
+        rollupService.prepare(current.getStartDate(), current.getEndDate(), status);
+
+        // An open status claims the car, so the change queues with createBooking for the same car;
+        // reopening a cancelled or completed booking re-checks its dates under the row lock
+        Long carId = current.getCar().getId();
+        boolean claimsCar = BookingIntervalIndex.OPEN_STATUSES.contains(status);
+        ReentrantLock lock = claimsCar ? carLocks.lockFor(carId) : null;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            Booking saved = transactionTemplate.execute(tx -> {
+                if (claimsCar) {
+                    carRepository.findByIdForUpdate(carId)
+                            .orElseThrow(() -> new RuntimeException("Car not found"));
+                }
+                Booking booking = bookingRepository.findById(bookingId)
+                        .orElseThrow(() -> new RuntimeException("Booking not found"));
+                BookingStatus previousStatus = booking.getStatus();
+                if (claimsCar && !BookingIntervalIndex.OPEN_STATUSES.contains(previousStatus)
+                        && bookingRepository.existsByCarIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                                carId, OPEN_STATUS_LIST, booking.getEndDate(), booking.getStartDate())) {
+                    throw new RuntimeException("Car is not available for the selected dates");
+                }
+                booking.setStatus(status);
+                Booking updated = bookingRepository.save(booking);
+                rollupService.recordStatusChange(updated, previousStatus);
+                dashboardStats.bookingStatusChanged(updated, previousStatus);
+                inMemoryViewsAfterCommit(updated);
+                return updated;
+            });
+            dataVersions.changed(DataVersions.Aggregate.BOOKING);
+            auditLogService.record("BOOKING_STATUS", "Booking #" + bookingId + " set to " + status,
+                    status == BookingStatus.CANCELLED ? AuditLevel.WARNING : AuditLevel.SUCCESS);
+            return saved;
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Runs when the outermost transaction commits, so a caller's rollback never leaves the index or
+    // the feed ahead of the table; still inside the car lock when this method opened the transaction
+    private void inMemoryViewsAfterCommit(Booking booking) {
+        TransactionHooks.afterCommit(() -> {
+            bookingIndex.update(booking);
+            recentBookings.update(booking);
+        });
     }
 
     public void cancelBooking(@NonNull Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
-        booking.setStatus(BookingStatus.CANCELLED);
-        bookingRepository.save(booking);
+        updateBookingStatus(bookingId, BookingStatus.CANCELLED);
     }
 
     public boolean isCarAvailable(@NonNull Long carId, LocalDate startDate, LocalDate endDate) {
@@ -85,90 +210,88 @@ public class BookingService {
             return false;
         }
 
-        List<BookingStatus> activeStatuses = Arrays.asList(
-                BookingStatus.CONFIRMED,
-                BookingStatus.ACTIVE,
-                BookingStatus.PENDING
-        );
+        return !bookingIndex.isBooked(carId, startDate, endDate, BookingIntervalIndex.OPEN_STATUSES);
+    }
 
-        return !bookingRepository
-                .existsByCarIdAndStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
-                        carId,
-                        activeStatuses,
-                        endDate,
-                        startDate
-                );
+    // Every bookable car free for the whole of [startDate, endDate], in one query; brand is a
+    // case-insensitive literal substring and either price bound may be null
+    public Page<CarSummary> findAvailableCars(@NonNull LocalDate startDate, @NonNull LocalDate endDate, String brand,
+                                       Double minPrice, Double maxPrice, @NonNull Pageable pageable) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        String brandPattern = LikePatterns.contains(brand);
+        return carRepository.findAvailableBetween(startDate, endDate, brandPattern,
+                minPrice != null ? minPrice : 0, maxPrice != null ? maxPrice : Double.MAX_VALUE,
+                BookingIntervalIndex.OPEN_STATUSES, pageable);
+    }
+
+    // Same search keyset-paged: up to limit free cars with an id above afterId, in id order
+    public List<CarSummary> findAvailableCarsAfter(@NonNull LocalDate startDate, @NonNull LocalDate endDate,
+                                                   String brand, Double minPrice, Double maxPrice,
+                                                   long afterId, int limit) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        String brandPattern = LikePatterns.contains(brand);
+        return carRepository.findAvailableBetweenAfter(startDate, endDate, brandPattern,
+                minPrice != null ? minPrice : 0, maxPrice != null ? maxPrice : Double.MAX_VALUE,
+                BookingIntervalIndex.OPEN_STATUSES, afterId, PageRequest.of(0, limit));
     }
 
     public boolean isCarBookedOnDate(@NonNull Long carId, @NonNull LocalDate date) {
-        List<BookingStatus> activeStatuses = Arrays.asList(
-                BookingStatus.CONFIRMED,
-                BookingStatus.ACTIVE,
-                BookingStatus.PENDING
-        );
-        return bookingRepository.findAll().stream()
-                .filter(b -> b.getCar().getId().equals(carId))
-                .filter(b -> activeStatuses.contains(b.getStatus()))
-                .anyMatch(b -> !b.getStartDate().isAfter(date) && !b.getEndDate().isBefore(date));
+        return bookingIndex.isBooked(carId, date, date, BookingIntervalIndex.OPEN_STATUSES);
+    }
+
+    // Ids of every car with an open booking covering the date, in one pass over the index
+    public Set<Long> findCarsBookedOnDate(@NonNull LocalDate date) {
+        return bookingIndex.carsBookedOn(date, BookingIntervalIndex.OPEN_STATUSES);
     }
 
     // Admin/Reporting Methods
     public long countActiveBookings(LocalDate date) {
-        List<BookingStatus> activeStatuses = Arrays.asList(
-                BookingStatus.CONFIRMED,
-                BookingStatus.ACTIVE
-        );
-        return bookingRepository.findAll().stream()
-                .filter(b -> activeStatuses.contains(b.getStatus()))
-                .filter(b -> !b.getStartDate().isAfter(date) && !b.getEndDate().isBefore(date))
-                .count();
+        return bookingIndex.countBookingsOn(date, COUNTED_AS_ACTIVE);
     }
 
     public double calculateMonthlyRevenue(LocalDate startDate, LocalDate endDate) {
-        return bookingRepository.findAll().stream()
-                .filter(b -> !b.getStartDate().isAfter(endDate) && !b.getEndDate().isBefore(startDate))
-                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.COMPLETED)
-                .mapToDouble(Booking::getTotalPrice)
-                .sum();
+        Map<BookingStatus, StatusTotals> totals = rollupService.totalsOverlapping(startDate, endDate);
+        return BookingRollupService.totalsFor(totals, BookingStatus.CONFIRMED, BookingStatus.COMPLETED).revenue();
     }
 
     public Map<String, Object> generateMonthlyReport(LocalDate startDate, LocalDate endDate) {
         Map<String, Object> report = new HashMap<>();
-        List<Booking> bookings = bookingRepository.findAll().stream()
-                .filter(b -> !b.getStartDate().isAfter(endDate) && !b.getEndDate().isBefore(startDate))
-                .collect(Collectors.toList());
+        Map<BookingStatus, StatusTotals> totals = rollupService.totalsOverlapping(startDate, endDate);
 
-        report.put("totalBookings", bookings.size());
-        report.put("confirmedBookings", bookings.stream().filter(b -> b.getStatus() == BookingStatus.CONFIRMED).count());
-        report.put("cancelledBookings", bookings.stream().filter(b -> b.getStatus() == BookingStatus.CANCELLED).count());
-        report.put("totalRevenue", bookings.stream()
-                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.COMPLETED)
-                .mapToDouble(Booking::getTotalPrice).sum());
+        report.put("totalBookings", (int) BookingRollupService.totalsFor(totals, BookingStatus.values()).count());
+        report.put("confirmedBookings", BookingRollupService.totalsFor(totals, BookingStatus.CONFIRMED).count());
+        report.put("cancelledBookings", BookingRollupService.totalsFor(totals, BookingStatus.CANCELLED).count());
+        report.put("totalRevenue", BookingRollupService.totalsFor(totals,
+                BookingStatus.CONFIRMED, BookingStatus.COMPLETED).revenue());
 
         return report;
     }
 
     public Map<String, Object> generateRevenueReport(LocalDate startDate, LocalDate endDate) {
         Map<String, Object> report = new HashMap<>();
-        List<Booking> bookings = bookingRepository.findAll().stream()
-                .filter(b -> !b.getStartDate().isAfter(endDate) && !b.getEndDate().isBefore(startDate))
-                .collect(Collectors.toList());
+        Map<BookingStatus, StatusTotals> totals = rollupService.totalsOverlapping(startDate, endDate);
 
-        double totalRevenue = bookings.stream()
-                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED || b.getStatus() == BookingStatus.COMPLETED)
-                .mapToDouble(Booking::getTotalPrice).sum();
+        int bookingsCount = (int) BookingRollupService.totalsFor(totals, BookingStatus.values()).count();
+        double totalRevenue = BookingRollupService.totalsFor(totals,
+                BookingStatus.CONFIRMED, BookingStatus.COMPLETED).revenue();
 
         report.put("totalRevenue", totalRevenue);
-        report.put("averageBookingValue", bookings.isEmpty() ? 0 : totalRevenue / bookings.size());
-        report.put("bookingsCount", bookings.size());
+        report.put("averageBookingValue", bookingsCount == 0 ? 0 : totalRevenue / bookingsCount);
+        report.put("bookingsCount", bookingsCount);
 
         return report;
     }
 
-    public List<Booking> findRecentBookings(int limit) {
-        return bookingRepository.findAll().stream()
-                .sorted((b1, b2) -> b2.getId().compareTo(b1.getId())) // Sort by ID (newest first)
-                .limit(limit)
-                .collect(Collectors.toList());
+    public List<RecentBooking> findRecentBookings(int limit) {
+        return recentBookings.recent(limit);
+    }
+
+    // Any filter may be null
+    public List<RecentBooking> findRecentBookings(int limit, Long userId, Long carId, BookingStatus status) {
+        return recentBookings.recent(limit, userId, carId, status);
     }
 }
@@ -0,0 +1,57 @@
+package com.drivesmart.service;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.entity.Car;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps cars_seq ahead of the ids already in the cars table. Cars used to take their
+ * id from an identity column, so on an existing database the sequence starts below
+ * rows that are already there. Runs once the schema is in place and before anything
+ * inserts a car; also callable after rows were inserted with explicit ids.
+ */
+@Component
+public class CarIdSequence implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CarIdSequence.class);
+
+    private static final String SEQUENCE = "cars_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextValueSql;
+
+    // The factory dependency also orders this after the schema update
+    public CarIdSequence(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        this.nextValueSql = dialect.getSequenceSupport().getSequenceNextValString(SEQUENCE);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        align();
+    }
+
+    public void align() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM cars", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        // Hibernate's pooled optimizer hands out the block ending at the value it reads, so
+        // the value read next has to be at least one full block above the highest id
+        Long next = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+        if (next != null && next <= maxId) {
+            long restart = maxId + Car.ID_ALLOCATION_SIZE;
+            jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + restart);
+            log.info("Moved {} from {} to {} past existing car ids", SEQUENCE, next, restart);
+        }
+    }
+}
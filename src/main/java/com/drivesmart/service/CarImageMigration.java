@@ -0,0 +1,75 @@
+package com.drivesmart.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.entity.CarImageBlob;
+import com.drivesmart.repository.CarImageBlobRepository;
+import com.drivesmart.repository.CarRepository;
+
+// Moves images still stored in cars.image_data into the file store, one car per transaction
+@Component
+public class CarImageMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(CarImageMigration.class);
+
+    private final CarImageBlobRepository blobRepository;
+    private final CarRepository carRepository;
+    private final CarImageStore imageStore;
+    private final DataVersions dataVersions;
+    private final TransactionTemplate transactionTemplate;
+
+    public CarImageMigration(CarImageBlobRepository blobRepository, CarRepository carRepository,
+                             CarImageStore imageStore, DataVersions dataVersions,
+                             TransactionTemplate transactionTemplate) {
+        this.blobRepository = blobRepository;
+        this.carRepository = carRepository;
+        this.imageStore = imageStore;
+        this.dataVersions = dataVersions;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        List<Long> ids = blobRepository.findIdsWithImageData();
+        if (ids.isEmpty()) {
+            return;
+        }
+        log.info("Moving {} car images from the database to the file store", ids.size());
+        int moved = 0;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> moveImage(id));
+                moved++;
+            } catch (RuntimeException e) {
+                log.error("Could not move image of car {}", id, e);
+            }
+        }
+        if (moved > 0) {
+            dataVersions.changed(DataVersions.Aggregate.CAR);
+        }
+        log.info("Moved {} of {} car images", moved, ids.size());
+    }
+
+    private void moveImage(Long id) {
+        CarImageBlob blob = blobRepository.findById(id).orElse(null);
+        if (blob == null || blob.getImageData() == null) {
+            return;
+        }
+        try {
+            String hash = imageStore.store(blob.getImageData());
+            carRepository.updateImageHash(id, hash);
+            blobRepository.clearImageData(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.drivesmart.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Downscaled copies of stored car images. A variant is generated once with Java2D,
+ * written next to the originals and kept in a byte-bounded LRU cache; concurrent misses
+ * for the same variant share one generation. Variants of a given hash never change.
+ */
+@Service
+public class CarImageVariants {
+
+    private static final Logger log = LoggerFactory.getLogger(CarImageVariants.class);
+
+    // Target width in pixels; FULL is the original upload
+    public enum Size {
+        THUMB(320), CARD(800), FULL(0);
+
+        private final int width;
+
+        Size(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        // Unknown or missing values fall back to FULL
+        public static Size parse(String value) {
+            if (value == null || value.isBlank()) {
+                return FULL;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return FULL;
+            }
+        }
+    }
+
+    public record Variant(byte[] data, String contentType) {
+    }
+
+    // Cached, and written to disk as an empty file, when the original is to be served for a size:
+    // it is no wider than the target or cannot be decoded. Either way that never changes for a hash
+    private static final Variant ORIGINAL = new Variant(new byte[0], null);
+
+    private final CarImageStore imageStore;
+    private final long maxCacheBytes;
+
+    // Access-ordered, guarded by itself
+    private final LinkedHashMap<String, Variant> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+    private final Map<String, CompletableFuture<Variant>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+
+    public CarImageVariants(CarImageStore imageStore,
+                            @Value("${drivesmart.images.variant-cache-bytes:33554432}") long maxCacheBytes) {
+        this.imageStore = imageStore;
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * Returns the scaled image, or null when the original should be served instead:
+     * FULL was asked for, the original is already small enough, or it cannot be decoded.
+     * The last two are remembered per hash and size, so the original is decoded at most once.
+     */
+    public Variant get(String hash, Size size) throws IOException {
+        if (size == Size.FULL) {
+            return null;
+        }
+        Path original = imageStore.resolve(hash);
+        if (original == null) {
+            return null;
+        }
+        String key = hash + "-" + size.getWidth();
+        Variant cached = cached(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached == ORIGINAL ? null : cached;
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<Variant> mine = new CompletableFuture<>();
+        CompletableFuture<Variant> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            Variant variant = await(running);
+            return variant == ORIGINAL ? null : variant;
+        }
+        try {
+            Variant variant = load(original, hash, size);
+            put(key, variant);
+            mine.complete(variant);
+            return variant == ORIGINAL ? null : variant;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("generated", generated.get());
+        synchronized (cache) {
+            stats.put("entries", (long) cache.size());
+            stats.put("bytes", cachedBytes);
+        }
+        return stats;
+    }
+
+    // Disk first, then generate and persist so restarts do not rescale everything
+    private Variant load(Path original, String hash, Size size) throws IOException {
+        Path file = variantPath(original, hash, size);
+        if (Files.isRegularFile(file)) {
+            byte[] data = Files.readAllBytes(file);
+            return data.length == 0 ? ORIGINAL : new Variant(data, imageStore.contentType(file));
+        }
+        byte[] data;
+        boolean alpha;
+        try {
+            BufferedImage source;
+            try (InputStream in = Files.newInputStream(original)) {
+                source = ImageIO.read(in);
+            }
+            if (source == null || source.getWidth() <= size.getWidth()) {
+                persist(original, file, new byte[0]);
+                return ORIGINAL;
+            }
+            alpha = source.getColorModel().hasAlpha();
+            BufferedImage scaled = scale(source, size.getWidth(), alpha);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            String format = alpha ? "png" : "jpg";
+            if (!ImageIO.write(scaled, format, out)) {
+                log.warn("No ImageIO writer for {}; serving original of {}", format, hash);
+                return ORIGINAL;
+            }
+            data = out.toByteArray();
+        } catch (IIOException | RuntimeException e) {
+            // Decoders reject some valid files (CMYK JPEGs, for one); those are served as uploaded
+            log.warn("Cannot scale image {}; serving the original: {}", hash, e.toString());
+            persist(original, file, new byte[0]);
+            return ORIGINAL;
+        }
+        persist(original, file, data);
+        generated.incrementAndGet();
+        return new Variant(data, alpha ? "image/png" : "image/jpeg");
+    }
+
+    private static void persist(Path original, Path file, byte[] data) throws IOException {
+        Path temp = Files.createTempFile(original.getParent(), "variant-", ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Halves the image until close to the target before the last bilinear step, which keeps detail
+    private static BufferedImage scale(BufferedImage source, int targetWidth, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage current = source;
+        int width = source.getWidth();
+        do {
+            int nextWidth = Math.max(targetWidth, width / 2);
+            int nextHeight = Math.max(1, (int) Math.round((double) source.getHeight() * nextWidth / source.getWidth()));
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+            width = nextWidth;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private static Path variantPath(Path original, String hash, Size size) {
+        return original.resolveSibling(hash + "-" + size.getWidth());
+    }
+
+    private static Variant await(CompletableFuture<Variant> running) throws IOException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private Variant cached(String key) {
+        synchronized (cache) {
+            return cache.get(key);
+        }
+    }
+
+    private void put(String key, Variant variant) {
+        long size = variant.data().length;
+        if (size > maxCacheBytes) {
+            return;
+        }
+        synchronized (cache) {
+            Variant previous = cache.put(key, variant);
+            cachedBytes += size - (previous != null ? previous.data().length : 0);
+            var eldest = cache.entrySet().iterator();
+            while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().getValue().data().length;
+                eldest.remove();
+            }
+        }
+    }
+}
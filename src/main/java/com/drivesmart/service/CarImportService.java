@@ -0,0 +1,389 @@
+package com.drivesmart.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.dto.CarImportResult;
+import com.drivesmart.entity.AuditLevel;
+import com.drivesmart.entity.Car;
+import com.drivesmart.repository.CarRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk car import from CSV (header row first) or a JSON array, parsed as a stream so the
+ * upload is never held in memory. Each row is validated on its own and its plate checked
+ * against the plates preloaded from the table plus those accepted so far. Valid cars are
+ * persisted in chunks of batch-size, one transaction and one flush per chunk, which the
+ * pooled car id sequence lets Hibernate send as JDBC batches. A chunk that fails is
+ * retried row by row so only the offending rows are reported. The search index is
+ * rebuilt once at the end rather than per car.
+ */
+@Service
+public class CarImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CarImportService.class);
+
+    public enum Format {
+        CSV, JSON;
+
+        // JSON when the content type or file name says so, CSV otherwise
+        public static Format of(String contentType, String filename) {
+            boolean json = (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json"))
+                    || (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".json"));
+            return json ? JSON : CSV;
+        }
+    }
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Column names after normalize(); isAvailable is optional and defaults to true
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("brand", "model", "licenseplate", "year", "color", "priceperday");
+
+    private final CarRepository carRepository;
+    private final CarSearchIndex searchIndex;
+    private final DataVersions dataVersions;
+    private final AuditLogService auditLogService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public CarImportService(CarRepository carRepository, CarSearchIndex searchIndex, DataVersions dataVersions,
+                            AuditLogService auditLogService,
+                            TransactionTemplate transactionTemplate, Validator validator, ObjectMapper objectMapper,
+                            @Value("${drivesmart.cars.import-batch-size:500}") int batchSize) {
+        this.carRepository = carRepository;
+        this.searchIndex = searchIndex;
+        this.dataVersions = dataVersions;
+        this.auditLogService = auditLogService;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public CarImportResult importCars(InputStream in, Format format) {
+        long started = System.nanoTime();
+        Run run = new Run(new HashSet<>(carRepository.findAllLicensePlates()));
+        String aborted = null;
+        List<Pending> chunk = new ArrayList<>(batchSize);
+        try (RowReader reader = format == Format.JSON ? new JsonRows(in) : new CsvRows(in)) {
+            Map<String, String> row;
+            while ((row = reader.next()) != null) {
+                long number = ++run.rows;
+                Car car;
+                try {
+                    car = toCar(row);
+                } catch (IllegalArgumentException e) {
+                    run.failed++;
+                    run.error(number, row.get("licenseplate"), e.getMessage());
+                    continue;
+                }
+                if (!run.plates.add(car.getLicensePlate())) {
+                    run.duplicates++;
+                    run.error(number, car.getLicensePlate(), "License plate already exists");
+                    continue;
+                }
+                chunk.add(new Pending(number, car));
+                if (chunk.size() == batchSize) {
+                    write(chunk, run);
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Malformed input: rows read so far are kept, the rest of the stream is unreadable
+            aborted = e.getMessage();
+        }
+        write(chunk, run);
+
+        if (run.imported > 0) {
+            searchIndex.rebuild();
+            dataVersions.changed(DataVersions.Aggregate.CAR);
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        auditLogService.record("CAR_IMPORT", "Imported " + run.imported + " of " + run.rows + " rows ("
+                        + run.duplicates + " duplicates, " + run.failed + " failed"
+                        + (aborted != null ? ", aborted: " + aborted : "") + ")",
+                run.failed > 0 || aborted != null ? AuditLevel.WARNING : AuditLevel.SUCCESS);
+        log.info("Car import: {} rows, {} imported, {} duplicates, {} failed in {} ms",
+                run.rows, run.imported, run.duplicates, run.failed, elapsedMs);
+        return new CarImportResult(run.rows, run.imported, run.duplicates, run.failed,
+                run.errors, run.errorsTruncated, aborted, elapsedMs);
+    }
+
+    private void write(List<Pending> chunk, Run run) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            persist(chunk);
+            run.imported += chunk.size();
+        } catch (RuntimeException chunkFailure) {
+            // One bad row (say a plate inserted concurrently) rolls back the whole chunk
+            for (Pending pending : chunk) {
+                pending.car.setId(null);
+                try {
+                    persist(List.of(pending));
+                    run.imported++;
+                } catch (RuntimeException e) {
+                    run.failed++;
+                    run.error(pending.row, pending.car.getLicensePlate(),
+                            "Not saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                }
+            }
+        }
+        chunk.clear();
+    }
+
+    private void persist(List<Pending> chunk) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            for (Pending pending : chunk) {
+                entityManager.persist(pending.car);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private Car toCar(Map<String, String> row) {
+        Car car = new Car();
+        car.setBrand(trimToNull(row.get("brand")));
+        car.setModel(trimToNull(row.get("model")));
+        String plate = trimToNull(row.get("licenseplate"));
+        car.setLicensePlate(plate != null ? plate.toUpperCase(Locale.ROOT) : null);
+        car.setYear(parse(row.get("year"), "Year", Integer::valueOf));
+        car.setColor(trimToNull(row.get("color")));
+        car.setPricePerDay(parse(row.get("priceperday"), "Price per day", Double::valueOf));
+        String available = trimToNull(row.getOrDefault("isavailable", row.get("available")));
+        car.setIsAvailable(available == null || Boolean.parseBoolean(available) || "1".equals(available));
+
+        Set<ConstraintViolation<Car>> violations = validator.validate(car);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return car;
+    }
+
+    private static <T> T parse(String value, String field, Function<String, T> parser) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            return null; // reported by validation as required
+        }
+        try {
+            return parser.apply(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + trimmed);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // "License Plate", "license_plate" and "licensePlate" all become "licenseplate"
+    private static String normalize(String column) {
+        StringBuilder out = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+            }
+        }
+        return out.toString();
+    }
+
+    private record Pending(long row, Car car) {
+    }
+
+    // Counters and errors of one import
+    private static final class Run {
+        final Set<String> plates;
+        final List<CarImportResult.RowError> errors = new ArrayList<>();
+        boolean errorsTruncated;
+        long rows;
+        long imported;
+        long duplicates;
+        long failed;
+
+        Run(Set<String> plates) {
+            this.plates = plates;
+        }
+
+        void error(long row, String licensePlate, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new CarImportResult.RowError(row, licensePlate, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+
+    // Rows keyed by normalized column name; null at the end of input
+    private interface RowReader extends AutoCloseable {
+        Map<String, String> next() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    // RFC 4180: comma separated, double quotes around fields holding commas, quotes or line breaks
+    private static final class CsvRows implements RowReader {
+        private final BufferedReader reader;
+        private final List<String> columns;
+
+        CsvRows(InputStream in) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+            List<String> header = readRecord();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV import is empty");
+            }
+            columns = new ArrayList<>(header.size());
+            for (String column : header) {
+                columns.add(normalize(column));
+            }
+            List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.contains(c)).toList();
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("CSV header lacks column(s) " + String.join(", ", missing));
+            }
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+                row.put(columns.get(i), fields.get(i));
+            }
+            return row;
+        }
+
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean read = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                read = true;
+                if (quoted) {
+                    if (c != '"') {
+                        field.append((char) c);
+                        continue;
+                    }
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (following != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r' && c != '\uFEFF') {
+                    field.append((char) c);
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("CSV ends inside a quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // A top-level array of objects, pulled one object at a time
+    private final class JsonRows implements RowReader {
+        private final JsonParser parser;
+
+        JsonRows(InputStream in) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(in);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("JSON import expects an array of cars");
+            }
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            Map<String, String> row = new HashMap<>();
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return row; // fails validation like an empty object
+            }
+            JsonNode node = parser.readValueAsTree();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                row.put(normalize(field.getKey()), field.getValue().isNull() ? null : field.getValue().asText());
+            }
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.drivesmart.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed pool of locks shared out by car id. Writers for the same car queue here
+ * instead of each holding a database connection while waiting on the row lock;
+ * writers for different cars almost always land on different stripes.
+ */
+@Component
+public class CarLockStripes {
+
+    private static final int STRIPES = 256; // power of two
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public CarLockStripes() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public ReentrantLock lockFor(Long carId) {
+        int h = carId.hashCode();
+        h ^= (h >>> 16);
+        return locks[h & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,505 @@
+package com.drivesmart.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.dto.CarSuggestion;
+import com.drivesmart.entity.Car;
+import com.drivesmart.repository.CarRepository;
+
+/**
+ * In-memory inverted index over brand, model, license plate and colour. Every field
+ * contributes its one-, two- and three-letter substrings, each mapping to a sorted array
+ * of document slots. A query term of three or more letters intersects the posting lists
+ * of its trigrams and then checks the candidates for a real substring match; shorter
+ * terms look up their own posting list. Every term is a substring match, as the SQL
+ * search was, so "3" still finds "BMW 330i"; ranking puts prefix matches first.
+ * Readers never lock; writers replace posting arrays under a single lock.
+ */
+@Component
+public class CarSearchIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final CarRepository carRepository;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Segment segment = new Segment(0);
+    private volatile boolean loaded;
+
+    public CarSearchIndex(CarRepository carRepository) {
+        this.carRepository = carRepository;
+    }
+
+    // Ids of cars matching every term, best match first
+    public List<Long> search(String query, int limit) {
+        List<Doc> ranked = rank(query, limit);
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Doc doc : ranked) {
+            ids.add(doc.id);
+        }
+        return ids;
+    }
+
+    // Labels straight from the index, no database access
+    public List<CarSuggestion> suggest(String query, int limit) {
+        List<Doc> ranked = rank(query, limit);
+        List<CarSuggestion> suggestions = new ArrayList<>(ranked.size());
+        for (Doc doc : ranked) {
+            suggestions.add(new CarSuggestion(doc.id, doc.brand + " " + doc.model, doc.licensePlate));
+        }
+        return suggestions;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return segment.live;
+    }
+
+    public void update(Car car) {
+        if (car == null || car.getId() == null) {
+            return;
+        }
+        ensureLoaded();
+        writeLock.lock();
+        try {
+            segment.put(new Doc(car.getId(), car.getBrand(), car.getModel(), car.getLicensePlate(), car.getColor()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long carId) {
+        if (carId == null) {
+            return;
+        }
+        ensureLoaded();
+        writeLock.lock();
+        try {
+            segment.remove(carId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            List<Object[]> rows = carRepository.findSearchFields();
+            Segment fresh = new Segment(rows.size());
+            for (Object[] row : rows) {
+                fresh.append(new Doc((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+            fresh.seal();
+            segment = fresh;
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private List<Doc> rank(String query, int limit) {
+        ensureLoaded();
+        String[] terms = terms(query);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        Segment current = segment;
+        int[] candidates = null;
+        for (String term : terms) {
+            int[] matches = current.candidatesFor(term);
+            candidates = candidates == null ? matches : intersect(candidates, matches);
+            if (candidates.length == 0) {
+                return List.of();
+            }
+        }
+
+        // Top-k selection over packed (score, slot) keys; the heap root is the weakest kept match
+        Doc[] slots = current.slots;
+        long[] heap = new long[Math.min(limit, candidates.length)];
+        int size = 0;
+        for (int slot : candidates) {
+            Doc doc = slot < slots.length ? slots[slot] : null;
+            if (doc == null) {
+                continue;
+            }
+            int score = 0;
+            for (String term : terms) {
+                int termScore = doc.score(term);
+                if (termScore == 0) {
+                    score = 0;
+                    break;
+                }
+                score += termScore;
+            }
+            if (score == 0) {
+                continue;
+            }
+            long key = rankKey(score, slot);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(heap, size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+        long[] ranked = Arrays.copyOf(heap, size);
+        Arrays.sort(ranked);
+        List<Doc> result = new ArrayList<>(size);
+        for (int i = size - 1; i >= 0; i--) {
+            Doc doc = slots[slotOf(ranked[i])];
+            if (doc != null) {
+                result.add(doc);
+            }
+        }
+        return result;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            writeLock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    // Higher score first, then lower slot (slots follow car id order after a rebuild)
+    private static long rankKey(int score, int slot) {
+        return ((long) score << 32) | (Integer.MAX_VALUE - slot);
+    }
+
+    private static int slotOf(long key) {
+        return Integer.MAX_VALUE - (int) (key & 0xFFFFFFFFL);
+    }
+
+    private static void siftUp(long[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= heap[i]) {
+                return;
+            }
+            long tmp = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = tmp;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int i = 0;
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && heap[left] < heap[smallest]) {
+                smallest = left;
+            }
+            if (right < size && heap[right] < heap[smallest]) {
+                smallest = right;
+            }
+            if (smallest == i) {
+                return;
+            }
+            long tmp = heap[smallest];
+            heap[smallest] = heap[i];
+            heap[i] = tmp;
+            i = smallest;
+        }
+    }
+
+    // Linear merge for lists of similar length, binary search into the longer one otherwise
+    private static int[] intersect(int[] a, int[] b) {
+        int[] small = a.length <= b.length ? a : b;
+        int[] large = small == a ? b : a;
+        int[] out = new int[small.length];
+        int n = 0;
+        if (large.length / 16 <= small.length) {
+            int i = 0;
+            int j = 0;
+            while (i < small.length && j < large.length) {
+                if (small[i] < large[j]) {
+                    i++;
+                } else if (small[i] > large[j]) {
+                    j++;
+                } else {
+                    out[n++] = small[i];
+                    i++;
+                    j++;
+                }
+            }
+        } else {
+            int from = 0;
+            for (int slot : small) {
+                int at = Arrays.binarySearch(large, from, large.length, slot);
+                if (at >= 0) {
+                    out[n++] = slot;
+                    from = at + 1;
+                } else {
+                    from = -at - 1;
+                }
+                if (from >= large.length) {
+                    break;
+                }
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] terms(String query) {
+        String normalized = normalize(query);
+        return normalized.isEmpty() ? new String[0] : normalized.split("\\s+");
+    }
+
+    private static List<String> trigrams(String text) {
+        List<String> grams = new ArrayList<>();
+        addGrams(grams, text, 3);
+        return grams;
+    }
+
+    private static void addGrams(Collection<String> grams, String text, int length) {
+        for (int i = 0; i + length <= text.length(); i++) {
+            grams.add(text.substring(i, i + length));
+        }
+    }
+
+    /**
+     * Documents live in a dense slot array so the scoring loop needs no boxing or hashing.
+     * Slots are not reused after a delete; the next rebuild compacts them. Writers publish
+     * the slot before the postings that point at it, so readers always find the document.
+     */
+    private static final class Segment {
+
+        private final Map<String, int[]> postings = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private volatile Doc[] slots;
+        private volatile int live;
+        private int next;
+
+        // Only used while a rebuild appends; slots arrive in increasing order
+        private Map<String, int[]> building = new HashMap<>();
+        private Map<String, Integer> buildingSizes = new HashMap<>();
+
+        Segment(int capacity) {
+            this.slots = new Doc[Math.max(16, capacity)];
+        }
+
+        void append(Doc doc) {
+            int slot = assignSlot(doc);
+            for (String gram : doc.grams()) {
+                int[] list = building.get(gram);
+                int used = buildingSizes.getOrDefault(gram, 0);
+                if (list == null) {
+                    list = new int[4];
+                } else if (used == list.length) {
+                    list = Arrays.copyOf(list, used * 2);
+                }
+                list[used] = slot;
+                building.put(gram, list);
+                buildingSizes.put(gram, used + 1);
+            }
+        }
+
+        void seal() {
+            building.forEach((gram, list) -> postings.put(gram, Arrays.copyOf(list, buildingSizes.get(gram))));
+            building = null;
+            buildingSizes = null;
+        }
+
+        void put(Doc doc) {
+            Integer existing = slotById.get(doc.id);
+            if (existing == null) {
+                int slot = assignSlot(doc);
+                for (String gram : doc.grams()) {
+                    addPosting(gram, slot);
+                }
+                return;
+            }
+            int slot = existing;
+            Doc previous = slots[slot];
+            Set<String> grams = doc.grams();
+            slots[slot] = doc;
+            for (String gram : grams) {
+                addPosting(gram, slot);
+            }
+            if (previous != null) {
+                for (String gram : previous.grams()) {
+                    if (!grams.contains(gram)) {
+                        removePosting(gram, slot);
+                    }
+                }
+            }
+        }
+
+        void remove(long id) {
+            Integer slot = slotById.remove(id);
+            if (slot == null) {
+                return;
+            }
+            Doc previous = slots[slot];
+            slots[slot] = null;
+            live--;
+            if (previous != null) {
+                for (String gram : previous.grams()) {
+                    removePosting(gram, slot);
+                }
+            }
+        }
+
+        int[] candidatesFor(String term) {
+            if (term.length() < 3) {
+                return postings.getOrDefault(term, NONE);
+            }
+            List<int[]> lists = new ArrayList<>();
+            for (String gram : trigrams(term)) {
+                int[] list = postings.get(gram);
+                if (list == null) {
+                    return NONE;
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.length));
+            int[] result = lists.get(0);
+            for (int i = 1; i < lists.size() && result.length > 0; i++) {
+                result = intersect(result, lists.get(i));
+            }
+            return result;
+        }
+
+        private int assignSlot(Doc doc) {
+            int slot = next++;
+            Doc[] current = slots;
+            if (slot >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[slot] = doc;
+            slots = current;
+            slotById.put(doc.id, slot);
+            live++;
+            return slot;
+        }
+
+        private void addPosting(String gram, int slot) {
+            int[] list = postings.getOrDefault(gram, NONE);
+            int at = Arrays.binarySearch(list, slot);
+            if (at >= 0) {
+                return;
+            }
+            int insert = -at - 1;
+            int[] copy = new int[list.length + 1];
+            System.arraycopy(list, 0, copy, 0, insert);
+            copy[insert] = slot;
+            System.arraycopy(list, insert, copy, insert + 1, list.length - insert);
+            postings.put(gram, copy);
+        }
+
+        private void removePosting(String gram, int slot) {
+            int[] list = postings.get(gram);
+            if (list == null) {
+                return;
+            }
+            int at = Arrays.binarySearch(list, slot);
+            if (at < 0) {
+                return;
+            }
+            if (list.length == 1) {
+                postings.remove(gram);
+                return;
+            }
+            int[] copy = new int[list.length - 1];
+            System.arraycopy(list, 0, copy, 0, at);
+            System.arraycopy(list, at + 1, copy, at, list.length - at - 1);
+            postings.put(gram, copy);
+        }
+    }
+
+    // Field order doubles as weight order: a plate hit outranks a brand or model hit, then colour
+    private static final class Doc {
+
+        private static final int[] WEIGHTS = {3, 2, 2, 1};
+
+        private final long id;
+        private final String brand;
+        private final String model;
+        private final String licensePlate;
+        private final String[] fields;
+        private final String[][] words;
+
+        Doc(long id, String brand, String model, String licensePlate, String color) {
+            this.id = id;
+            this.brand = brand != null ? brand : "";
+            this.model = model != null ? model : "";
+            this.licensePlate = licensePlate != null ? licensePlate : "";
+            this.fields = new String[] {normalize(licensePlate), normalize(brand), normalize(model), normalize(color)};
+            this.words = new String[fields.length][];
+            for (int i = 0; i < fields.length; i++) {
+                words[i] = fields[i].split("[\\s\\-]+");
+            }
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (String field : fields) {
+                for (int length = 1; length <= 3; length++) {
+                    addGrams(grams, field, length);
+                }
+            }
+            return grams;
+        }
+
+        // 0 when the term does not match; exact field beats field prefix beats word prefix beats substring
+        int score(String term) {
+            int best = 0;
+            for (int i = 0; i < fields.length; i++) {
+                String field = fields[i];
+                int score;
+                if (field.equals(term)) {
+                    score = 8;
+                } else if (field.startsWith(term)) {
+                    score = 4;
+                } else if (startsAnyWord(words[i], term)) {
+                    score = 2;
+                } else if (field.contains(term)) {
+                    score = 1;
+                } else {
+                    continue;
+                }
+                best = Math.max(best, score * WEIGHTS[i]);
+            }
+            return best;
+        }
+
+        private static boolean startsAnyWord(String[] words, String term) {
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -3,16 +3,24 @@ package com.drivesmart.service;
 import java.util.List;
 import java.util.Optional;
 
+import com.drivesmart.dto.CarSuggestion;
+import com.drivesmart.dto.CarSummary;
 import com.drivesmart.entity.Car;
 
 public interface CarService {
-    List<Car> getAllCars();
+    // Lists, search results and dropdowns get summaries; only detail and edit pages load the entity
+    List<CarSummary> getAllCars();
     Optional<Car> getCarById(Long id);
     Car saveCar(Car car);
     void deleteCar(Long id);
     boolean licensePlateExists(String licensePlate);
-    List<Car> searchCars(String query);
-    List<Car> searchCarsByBrand(String brand);
+    List<CarSummary> searchCars(String query);
+    List<CarSuggestion> suggestCars(String query, int limit);
+    List<CarSummary> searchCarsByBrand(String brand);
     void updateCarStatus(Long id, boolean available);
-    List<Car> getAvailableCars();
+    List<CarSummary> getAvailableCars();
+    Optional<String> getImageHash(Long id);
+    // Keyset pages for the JSON API: up to limit cars with an id above afterId, in id order
+    List<CarSummary> getCarsAfter(long afterId, int limit);
+    Optional<CarSummary> getCarSummary(Long id);
 }
\ No newline at end of file
@@ -1,12 +1,19 @@
 package com.drivesmart.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.drivesmart.dto.CarSuggestion;
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.entity.AuditLevel;
 import com.drivesmart.entity.Car;
 import com.drivesmart.repository.CarRepository;
 
@@ -17,9 +24,22 @@ public class CarServiceImpl implements CarService {
     @Autowired
     private CarRepository carRepository;
 
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private CarSearchIndex searchIndex;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    // Ranked search results loaded per request; the index itself has no cap
+    private static final int MAX_SEARCH_RESULTS = 500;
+
     @Override
-    public List<Car> getAllCars() {
-        return carRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<CarSummary> getAllCars() {
+        return carRepository.findAllSummaries();
     }
 
     @Override
@@ -36,7 +56,14 @@ public class CarServiceImpl implements CarService {
         if (car == null) {
             throw new IllegalArgumentException("Car cannot be null");
         }
-        return carRepository.save(car);
+        boolean created = car.getId() == null;
+        Car saved = carRepository.save(car);
+        // The index changes only once the row is committed, so a rollback cannot leave it ahead of the table
+        TransactionHooks.afterCommit(() -> searchIndex.update(saved));
+        dataVersions.changed(DataVersions.Aggregate.CAR);
+        auditLogService.record(created ? "CAR_CREATED" : "CAR_UPDATED",
+                "Car #" + saved.getId() + " " + saved.getLicensePlate(), AuditLevel.SUCCESS);
+        return saved;
     }
 
     @Override
@@ -44,6 +71,9 @@ public class CarServiceImpl implements CarService {
         // Fixed null safety warning
         if (id != null) {
             carRepository.deleteById(id);
+            TransactionHooks.afterCommit(() -> searchIndex.remove(id));
+            dataVersions.changed(DataVersions.Aggregate.CAR);
+            auditLogService.record("CAR_DELETED", "Car #" + id, AuditLevel.WARNING);
         }
     }
 
@@ -56,19 +86,41 @@ public class CarServiceImpl implements CarService {
     }
 
     @Override
-    public List<Car> searchCars(String query) {
+    @Transactional(readOnly = true)
+    public List<CarSummary> searchCars(String query) {
         if (query == null || query.trim().isEmpty()) {
-            return carRepository.findAll();
+            return carRepository.findAllSummaries();
         }
-        return carRepository.searchCars(query.trim());
+        List<Long> ids = searchIndex.search(query, MAX_SEARCH_RESULTS);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CarSummary> byId = new HashMap<>();
+        for (CarSummary car : carRepository.findSummariesByIdIn(ids)) {
+            byId.put(car.id(), car);
+        }
+        List<CarSummary> ranked = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            CarSummary car = byId.get(id);
+            if (car != null) {
+                ranked.add(car);
+            }
+        }
+        return ranked;
     }
 
     @Override
-    public List<Car> searchCarsByBrand(String brand) {
+    public List<CarSuggestion> suggestCars(String query, int limit) {
+        return searchIndex.suggest(query, Math.max(1, Math.min(limit, 20)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CarSummary> searchCarsByBrand(String brand) {
         if (brand == null || brand.trim().isEmpty()) {
-            return carRepository.findAll();
+            return carRepository.findAllSummaries();
         }
-        return carRepository.findByBrandContainingIgnoreCase(brand.trim());
+        return carRepository.findSummariesByBrand(brand.trim());
     }
 
     @Override
@@ -84,11 +136,40 @@ public class CarServiceImpl implements CarService {
             Car car = carOpt.get();
             car.setIsAvailable(available);
             carRepository.save(car);
+            TransactionHooks.afterCommit(() -> searchIndex.update(car));
+            dataVersions.changed(DataVersions.Aggregate.CAR);
+            auditLogService.record("CAR_STATUS", "Car #" + id + (available ? " available" : " unavailable"),
+                    AuditLevel.SUCCESS);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CarSummary> getAvailableCars() {
+        return carRepository.findAvailableSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getImageHash(Long id) {
+        if (id == null) {
+            return Optional.empty();
         }
+        return carRepository.findImageHashById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CarSummary> getCarsAfter(long afterId, int limit) {
+        return carRepository.findSummariesAfter(afterId, PageRequest.of(0, limit));
     }
 
     @Override
-    public List<Car> getAvailableCars() {
-        return carRepository.findByIsAvailableTrue();
+    @Transactional(readOnly = true)
+    public Optional<CarSummary> getCarSummary(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return carRepository.findSummariesByIdIn(List.of(id)).stream().findFirst();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,258 @@
+package com.drivesmart.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.UserRepository;
+
+/**
+ * Admin dashboard counters: users per role and per active flag, bookings per status,
+ * bookings active today and revenue of bookings overlapping the current month. The user and booking write
+ * paths apply deltas once their change has committed, so reads are a few atomic loads.
+ * A periodic reconcile recounts everything from the database, which also absorbs
+ * writes made behind the services' backs and the day/month rollover.
+ */
+@Component
+public class DashboardStats {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStats.class);
+
+    // Same statuses BookingService counts as active bookings and as revenue
+    private static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.ACTIVE);
+    private static final Set<BookingStatus> REVENUE_STATUSES = EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.COMPLETED);
+
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+
+    private final AtomicLongArray usersByRole = new AtomicLongArray(UserRole.values().length);
+    private final AtomicLong activeUsers = new AtomicLong();
+    private final AtomicLong inactiveUsers = new AtomicLong();
+    private final AtomicLongArray bookingsByStatus = new AtomicLongArray(BookingStatus.values().length);
+    private final AtomicLong bookingsActiveToday = new AtomicLong();
+    // Whole cents, so concurrent deltas add up exactly
+    private final AtomicLong monthRevenueCents = new AtomicLong();
+
+    // Not a monitor: the recount runs JDBC queries, which would pin a virtual thread
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    // Day the date-dependent counters refer to; null until the first reconcile
+    private volatile LocalDate statsDay;
+
+    public DashboardStats(UserRepository userRepository, BookingRepository bookingRepository) {
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    public long getTotalUsers() {
+        ensureCurrent();
+        return activeUsers.get() + inactiveUsers.get();
+    }
+
+    public long getActiveUsers() {
+        ensureCurrent();
+        return activeUsers.get();
+    }
+
+    public long getInactiveUsers() {
+        ensureCurrent();
+        return inactiveUsers.get();
+    }
+
+    // Role name to count, roles without users included
+    public Map<String, Long> getUsersByRole() {
+        ensureCurrent();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (UserRole role : UserRole.values()) {
+            counts.put(role.name(), usersByRole.get(role.ordinal()));
+        }
+        return counts;
+    }
+
+    public Map<BookingStatus, Long> getBookingsByStatus() {
+        ensureCurrent();
+        Map<BookingStatus, Long> counts = new EnumMap<>(BookingStatus.class);
+        for (BookingStatus status : BookingStatus.values()) {
+            counts.put(status, bookingsByStatus.get(status.ordinal()));
+        }
+        return counts;
+    }
+
+    public long getBookingsActiveToday() {
+        ensureCurrent();
+        return bookingsActiveToday.get();
+    }
+
+    public double getMonthlyRevenue() {
+        ensureCurrent();
+        return monthRevenueCents.get() / 100.0;
+    }
+
+    public void userSaved(User previous, User saved) {
+        TransactionHooks.afterCommit(() -> {
+            if (previous != null) {
+                applyUser(previous.getRole(), previous.getIsActive(), -1);
+            }
+            applyUser(saved.getRole(), saved.getIsActive(), 1);
+        });
+    }
+
+    public void userDeleted(User deleted) {
+        TransactionHooks.afterCommit(() -> applyUser(deleted.getRole(), deleted.getIsActive(), -1));
+    }
+
+    public void bookingCreated(Booking booking) {
+        bookingStatusChanged(booking, null);
+    }
+
+    public void bookingStatusChanged(Booking booking, BookingStatus previousStatus) {
+        BookingStatus status = booking.getStatus();
+        if (status == previousStatus) {
+            return;
+        }
+        LocalDate start = booking.getStartDate();
+        LocalDate end = booking.getEndDate();
+        long cents = toCents(Objects.requireNonNullElse(booking.getTotalPrice(), 0.0));
+        TransactionHooks.afterCommit(() -> {
+            LocalDate day = statsDay;
+            if (day == null) {
+                return; // the first reconcile will count it
+            }
+            if (previousStatus != null) {
+                bookingsByStatus.decrementAndGet(previousStatus.ordinal());
+            }
+            if (status != null) {
+                bookingsByStatus.incrementAndGet(status.ordinal());
+            }
+            if (!start.isAfter(day) && !end.isBefore(day)) {
+                bookingsActiveToday.addAndGet(membership(ACTIVE_STATUSES, status, previousStatus));
+            }
+            YearMonth month = YearMonth.from(day);
+            if (!start.isAfter(month.atEndOfMonth()) && !end.isBefore(month.atDay(1))) {
+                monthRevenueCents.addAndGet(cents * membership(REVENUE_STATUSES, status, previousStatus));
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${drivesmart.dashboard.reconcile-interval-ms:300000}",
+            initialDelayString = "${drivesmart.dashboard.reconcile-interval-ms:300000}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reconcile();
+    }
+
+    // Recounts from the database; writes committing during the recount are corrected on the next run
+    public void reconcile() {
+        reconcileLock.lock();
+        try {
+            recount();
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    private void recount() {
+        LocalDate today = LocalDate.now();
+        YearMonth month = YearMonth.from(today);
+
+        long[] roles = new long[UserRole.values().length];
+        long active = 0;
+        long inactive = 0;
+        for (Object[] row : userRepository.countByRoleAndActive()) {
+            long count = ((Number) row[2]).longValue();
+            roles[((UserRole) row[0]).ordinal()] += count;
+            if (Boolean.TRUE.equals(row[1])) {
+                active += count;
+            } else {
+                inactive += count;
+            }
+        }
+
+        long[] statuses = new long[BookingStatus.values().length];
+        for (Object[] row : bookingRepository.countByStatus()) {
+            statuses[((BookingStatus) row[0]).ordinal()] = ((Number) row[1]).longValue();
+        }
+        long activeToday = bookingRepository.countByStatusInAndStartDateLessThanEqualAndEndDateGreaterThanEqual(
+                List.copyOf(ACTIVE_STATUSES), today, today);
+        long revenueCents = 0;
+        for (Object[] row : bookingRepository.sumOverlappingByStatus(month.atDay(1), month.atEndOfMonth())) {
+            if (REVENUE_STATUSES.contains((BookingStatus) row[0]) && row[2] != null) {
+                revenueCents += toCents(((Number) row[2]).doubleValue());
+            }
+        }
+
+        for (int i = 0; i < roles.length; i++) {
+            usersByRole.set(i, roles[i]);
+        }
+        activeUsers.set(active);
+        inactiveUsers.set(inactive);
+        for (int i = 0; i < statuses.length; i++) {
+            bookingsByStatus.set(i, statuses[i]);
+        }
+        bookingsActiveToday.set(activeToday);
+        monthRevenueCents.set(revenueCents);
+        statsDay = today;
+        log.debug("Reconciled dashboard counters for {}", today);
+    }
+
+    // Lazy first load, and a recount once the day the counters refer to has passed
+    private void ensureCurrent() {
+        LocalDate day = statsDay;
+        if (day == null || !day.equals(LocalDate.now())) {
+            reconcileLock.lock();
+            try {
+                day = statsDay;
+                if (day == null || !day.equals(LocalDate.now())) {
+                    recount();
+                }
+            } finally {
+                reconcileLock.unlock();
+            }
+        }
+    }
+
+    private void applyUser(UserRole role, Boolean isActive, int sign) {
+        if (statsDay == null) {
+            return;
+        }
+        if (role != null) {
+            usersByRole.addAndGet(role.ordinal(), sign);
+        }
+        (Boolean.TRUE.equals(isActive) ? activeUsers : inactiveUsers).addAndGet(sign);
+    }
+
+    // +1 when the booking joins the set, -1 when it leaves, 0 otherwise
+    private static int membership(Set<BookingStatus> set, BookingStatus status, BookingStatus previousStatus) {
+        return (status != null && set.contains(status) ? 1 : 0)
+                - (previousStatus != null && set.contains(previousStatus) ? 1 : 0);
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+}
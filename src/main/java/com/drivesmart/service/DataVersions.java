@@ -0,0 +1,55 @@
+package com.drivesmart.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * A version counter per aggregate, bumped by the car, booking and user write paths once
+ * their change has committed. Pages build their ETag from the versions of the aggregates
+ * they render, so a client holding the current tag can be answered 304 before any query
+ * runs. Counters start over with the process; the startup epoch in every tag keeps a
+ * restarted or different instance from matching an old one. Writes made behind the
+ * services' backs are not seen.
+ */
+@Component
+public class DataVersions {
+
+    public enum Aggregate { CAR, BOOKING, USER }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLongArray versions = new AtomicLongArray(Aggregate.values().length);
+
+    public long current(Aggregate aggregate) {
+        return versions.get(aggregate.ordinal());
+    }
+
+    // Bumped after commit: a page read between the commit and the bump is only re-rendered once more
+    public void changed(Aggregate aggregate) {
+        TransactionHooks.afterCommit(() -> versions.incrementAndGet(aggregate.ordinal()));
+    }
+
+    // Weak ETag over the given aggregates, the day (pages count today's bookings) and a digest of the viewer
+    public String etag(String page, String viewer, LocalDate day, Aggregate... inputs) {
+        StringBuilder tag = new StringBuilder(64).append("W/\"").append(page).append('-').append(epoch);
+        for (Aggregate input : inputs) {
+            tag.append('-').append(Character.toLowerCase(input.name().charAt(0))).append(current(input));
+        }
+        return tag.append('-').append(day.toEpochDay()).append('-').append(digest(viewer)).append('"').toString();
+    }
+
+    // Viewer identity without putting it in a header
+    private static String digest(String viewer) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(viewer.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.drivesmart.service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.drivesmart.dto.UtilizationReport;
+import com.drivesmart.dto.UtilizationReport.CarUtilization;
+import com.drivesmart.dto.UtilizationReport.Totals;
+import com.drivesmart.entity.BookingStatus;
+
+/**
+ * Occupancy, idle days, revenue per available day and peak concurrent rentals per car,
+ * per brand and for the fleet. Bookings overlapping the range are read once into
+ * primitive arrays (days as offsets from the range start) and bucketed by car. Each car
+ * is then a sweep over its sorted start/end events, run in parallel across cars on the
+ * fork-join pool. The sweep also yields the car's busy intervals, and a second sweep
+ * over those gives the peak number of cars out at once for each brand and the fleet.
+ */
+@Service
+public class FleetUtilizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(FleetUtilizationService.class);
+
+    // Statuses in which a car is out with, or promised to, a customer; active rentals earn revenue too
+    private static final Set<BookingStatus> OCCUPYING =
+            EnumSet.of(BookingStatus.CONFIRMED, BookingStatus.ACTIVE, BookingStatus.COMPLETED);
+
+    private static final String CARS_SQL = "SELECT id, brand, model, license_plate FROM cars ORDER BY id";
+
+    private static final String BOOKINGS_SQL = "SELECT car_id, start_date, end_date, total_price FROM bookings "
+            + "WHERE status IN (" + OCCUPYING.stream().map(s -> "'" + s.name() + "'").collect(Collectors.joining(", "))
+            + ") AND start_date <= ? AND end_date >= ?";
+
+    private final ReportCursor reportCursor;
+
+    public FleetUtilizationService(ReportCursor reportCursor) {
+        this.reportCursor = reportCursor;
+    }
+
+    public UtilizationReport report(LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        long loadStarted = System.nanoTime();
+        Fleet fleet = new Fleet();
+        Spans spans = new Spans();
+        reportCursor.read(cursor -> {
+            cursor.query(CARS_SQL, (RowCallbackHandler) fleet::add);
+            long first = startDate.toEpochDay();
+            long last = endDate.toEpochDay();
+            cursor.query(BOOKINGS_SQL, (RowCallbackHandler) rs -> {
+                int car = Arrays.binarySearch(fleet.ids, 0, fleet.size, rs.getLong(1));
+                if (car < 0) {
+                    return;
+                }
+                long start = rs.getDate(2).toLocalDate().toEpochDay();
+                long end = rs.getDate(3).toLocalDate().toEpochDay();
+                long from = Math.max(start, first);
+                long to = Math.min(end, last);
+                // Price spread evenly over the booked days, so only the days inside the range count
+                double revenue = rs.getDouble(4) * (to - from + 1) / (end - start + 1);
+                spans.add(car, (int) (from - first), (int) (to - first), revenue);
+            }, Date.valueOf(endDate), Date.valueOf(startDate));
+        });
+        long computeStarted = System.nanoTime();
+        UtilizationReport report = compute(startDate, endDate, fleet, spans, computeStarted);
+        log.debug("Utilization {}..{}: {} cars, {} bookings, loaded in {} ms, computed in {} ms",
+                startDate, endDate, fleet.size, spans.size,
+                (computeStarted - loadStarted) / 1_000_000, report.computeMs());
+        return report;
+    }
+
+    private static UtilizationReport compute(LocalDate startDate, LocalDate endDate, Fleet fleet, Spans spans,
+                                             long started) {
+        int days = (int) (endDate.toEpochDay() - startDate.toEpochDay() + 1);
+        int cars = fleet.size;
+
+        // Counting sort of the spans by car: car c owns order[offsets[c] .. offsets[c + 1])
+        int[] offsets = new int[cars + 1];
+        for (int i = 0; i < spans.size; i++) {
+            offsets[spans.car[i] + 1]++;
+        }
+        for (int c = 0; c < cars; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] order = new int[spans.size];
+        int[] next = Arrays.copyOf(offsets, cars);
+        for (int i = 0; i < spans.size; i++) {
+            order[next[spans.car[i]]++] = i;
+        }
+
+        // Per car; busy[] holds each car's busy-interval events in its own slice [2 * offsets[c], ...)
+        int[] occupied = new int[cars];
+        double[] revenue = new double[cars];
+        long[] busy = new long[2 * spans.size];
+        int[] busyCount = new int[cars];
+        IntStream.range(0, cars).parallel().forEach(c ->
+                sweepCar(c, offsets, order, spans, occupied, revenue, busy, busyCount));
+
+        List<CarUtilization> carRows = new ArrayList<>(cars);
+        Map<String, List<Integer>> carsByBrand = new LinkedHashMap<>();
+        for (int c = 0; c < cars; c++) {
+            int bookings = offsets[c + 1] - offsets[c];
+            carRows.add(new CarUtilization(fleet.ids[c], fleet.brands[c], fleet.models[c], fleet.plates[c],
+                    bookings, occupied[c], days - occupied[c], percent(occupied[c], days),
+                    revenue[c], revenue[c] / days));
+            carsByBrand.computeIfAbsent(fleet.brands[c] != null ? fleet.brands[c] : "", b -> new ArrayList<>()).add(c);
+        }
+        carRows.sort(Comparator.comparingDouble(CarUtilization::occupancyPercent).reversed()
+                .thenComparing(Comparator.comparingDouble(CarUtilization::revenue).reversed()));
+
+        List<Totals> brands = carsByBrand.entrySet().parallelStream()
+                .map(brand -> totals(brand.getKey(), brand.getValue(), days, offsets, occupied, revenue, busy, busyCount, null))
+                .sorted(Comparator.comparingDouble(Totals::occupancyPercent).reversed()
+                        .thenComparing(Totals::name))
+                .toList();
+
+        int[] peakDay = {-1};
+        Totals fleetTotals = totals("Fleet", IntStream.range(0, cars).boxed().toList(), days,
+                offsets, occupied, revenue, busy, busyCount, peakDay);
+        LocalDate peakDate = peakDay[0] >= 0 ? startDate.plusDays(peakDay[0]) : null;
+
+        return new UtilizationReport(startDate, endDate, days, fleetTotals, peakDate, brands, carRows,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Sweep over one car's start/end events: days with at least one booking, and the merged busy intervals
+    private static void sweepCar(int car, int[] offsets, int[] order, Spans spans,
+                                 int[] occupied, double[] revenue, long[] busy, int[] busyCount) {
+        int first = offsets[car];
+        int count = offsets[car + 1] - first;
+        if (count == 0) {
+            return;
+        }
+        long[] events = new long[2 * count];
+        double earned = 0;
+        for (int k = 0; k < count; k++) {
+            int i = order[first + k];
+            events[2 * k] = startEvent(spans.from[i]);
+            events[2 * k + 1] = endEvent(spans.to[i] + 1);
+            earned += spans.revenue[i];
+        }
+        Arrays.sort(events);
+        int active = 0;
+        int previous = 0;
+        int days = 0;
+        int written = 2 * first;
+        for (long event : events) {
+            int day = (int) (event >>> 1);
+            if (active > 0) {
+                days += day - previous;
+            }
+            if (isStart(event)) {
+                if (active++ == 0) {
+                    busy[written++] = event;
+                }
+            } else if (--active == 0) {
+                busy[written++] = event;
+            }
+            previous = day;
+        }
+        occupied[car] = days;
+        revenue[car] = earned;
+        busyCount[car] = written - 2 * first;
+    }
+
+    // Sums for a group of cars; the peak is a sweep over their busy intervals. peakDay, if given, receives its offset
+    private static Totals totals(String name, List<Integer> group, int days, int[] offsets, int[] occupied,
+                                 double[] revenue, long[] busy, int[] busyCount, int[] peakDay) {
+        long bookings = 0;
+        long occupiedDays = 0;
+        double earned = 0;
+        int events = 0;
+        for (int c : group) {
+            bookings += offsets[c + 1] - offsets[c];
+            occupiedDays += occupied[c];
+            earned += revenue[c];
+            events += busyCount[c];
+        }
+        long[] merged = new long[events];
+        int length = 0;
+        for (int c : group) {
+            System.arraycopy(busy, 2 * offsets[c], merged, length, busyCount[c]);
+            length += busyCount[c];
+        }
+        if (merged.length > 1 << 16) {
+            Arrays.parallelSort(merged);
+        } else {
+            Arrays.sort(merged);
+        }
+        int active = 0;
+        int peak = 0;
+        for (long event : merged) {
+            active += isStart(event) ? 1 : -1;
+            if (active > peak) {
+                peak = active;
+                if (peakDay != null) {
+                    peakDay[0] = (int) (event >>> 1);
+                }
+            }
+        }
+        long available = (long) group.size() * days;
+        return new Totals(name, group.size(), bookings, occupiedDays, available - occupiedDays,
+                percent(occupiedDays, available), earned, available > 0 ? earned / available : 0, peak);
+    }
+
+    // Day in the high bits; ends sort before starts on the same day, so back-to-back bookings never overlap
+    private static long startEvent(int day) {
+        return ((long) day << 1) | 1;
+    }
+
+    private static long endEvent(int day) {
+        return (long) day << 1;
+    }
+
+    private static boolean isStart(long event) {
+        return (event & 1) == 1;
+    }
+
+    private static double percent(long part, long whole) {
+        return whole > 0 ? part * 100.0 / whole : 0;
+    }
+
+    // Cars in id order, so bookings find their car by binary search
+    private static final class Fleet {
+        long[] ids = new long[1024];
+        String[] brands = new String[1024];
+        String[] models = new String[1024];
+        String[] plates = new String[1024];
+        int size;
+
+        void add(ResultSet rs) throws SQLException {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                brands = Arrays.copyOf(brands, size * 2);
+                models = Arrays.copyOf(models, size * 2);
+                plates = Arrays.copyOf(plates, size * 2);
+            }
+            ids[size] = rs.getLong(1);
+            brands[size] = rs.getString(2);
+            models[size] = rs.getString(3);
+            plates[size] = rs.getString(4);
+            size++;
+        }
+    }
+
+    // Bookings clipped to the range: car index, first and last day offset (inclusive), revenue inside the range
+    private static final class Spans {
+        int[] car = new int[4096];
+        int[] from = new int[4096];
+        int[] to = new int[4096];
+        double[] revenue = new double[4096];
+        int size;
+
+        void add(int carIndex, int first, int last, double earned) {
+            if (size == car.length) {
+                car = Arrays.copyOf(car, size * 2);
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                revenue = Arrays.copyOf(revenue, size * 2);
+            }
+            car[size] = carIndex;
+            from[size] = first;
+            to[size] = last;
+            revenue[size] = earned;
+            size++;
+        }
+    }
+}
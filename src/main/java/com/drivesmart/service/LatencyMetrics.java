@@ -0,0 +1,81 @@
+package com.drivesmart.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.dto.LatencyStat;
+
+/**
+ * Named latency timers grouped by kind (controller, repository, view, password). Timers are
+ * created on first use and live for the lifetime of the application.
+ */
+@Component
+public class LatencyMetrics {
+
+    public static final String CONTROLLER = "controller";
+    public static final String REPOSITORY = "repository";
+    public static final String VIEW = "view";
+    public static final String PASSWORD = "password";
+
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    private final Map<String, Map<String, LatencyHistogram>> timers = new ConcurrentHashMap<>();
+
+    public void record(String kind, String name, long nanos) {
+        timers.computeIfAbsent(kind, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> new LatencyHistogram())
+                .recordNanos(nanos);
+    }
+
+    // Slowest p99 first within each kind
+    public List<LatencyStat> getStats() {
+        List<LatencyStat> stats = new ArrayList<>();
+        timers.forEach((kind, byName) -> byName.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot s = histogram.snapshot();
+            stats.add(new LatencyStat(kind, name, s.getCount(), s.getMeanMicros(),
+                    s.percentile(50), s.percentile(95), s.percentile(99), s.getMaxMicros()));
+        }));
+        stats.sort(Comparator.comparing(LatencyStat::getKind)
+                .thenComparing(Comparator.comparingLong(LatencyStat::getP99).reversed()));
+        return stats;
+    }
+
+    // Prometheus text exposition format (version 0.0.4), one summary per timer
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP drivesmart_latency_seconds Latency of controller handlers, repository methods, view rendering and password hashing.\n");
+        out.append("# TYPE drivesmart_latency_seconds summary\n");
+        List<String> maxLines = new ArrayList<>();
+        timers.forEach((kind, byName) -> byName.forEach((name, histogram) -> {
+            LatencyHistogram.Snapshot s = histogram.snapshot();
+            String labels = "kind=\"" + escape(kind) + "\",name=\"" + escape(name) + "\"";
+            for (double q : QUANTILES) {
+                out.append("drivesmart_latency_seconds{").append(labels).append(",quantile=\"").append(q).append("\"} ")
+                        .append(seconds(s.percentile(q * 100))).append('\n');
+            }
+            out.append("drivesmart_latency_seconds_sum{").append(labels).append("} ")
+                    .append(seconds(s.getTotalMicros())).append('\n');
+            out.append("drivesmart_latency_seconds_count{").append(labels).append("} ")
+                    .append(s.getCount()).append('\n');
+            maxLines.add("drivesmart_latency_max_seconds{" + labels + "} " + seconds(s.getMaxMicros()) + "\n");
+        }));
+        out.append("# HELP drivesmart_latency_max_seconds Slowest observation since startup.\n");
+        out.append("# TYPE drivesmart_latency_max_seconds gauge\n");
+        maxLines.forEach(out::append);
+        return out.toString();
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,23 @@
+package com.drivesmart.service;
+
+import java.util.Locale;
+
+// Free-text filters matched with LOWER(column) LIKE :pattern ESCAPE '\'
+final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    // Lower-cased substring pattern in which %, _ and \ are literal; null for a blank term, which
+    // the queries read as no filter, so rows with NULL in the searched columns are not dropped
+    static String contains(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        String escaped = search.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,146 @@
+package com.drivesmart.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.dto.RecentBooking;
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.repository.BookingRepository;
+
+/**
+ * The newest bookings, newest first, kept in a bounded immutable array that writers
+ * replace under a lock and readers scan without one. Filtered requests the window
+ * cannot answer (fewer matches than asked for while older bookings exist) fall back
+ * to an indexed ORDER BY created_at DESC query.
+ */
+@Component
+public class RecentBookingsFeed {
+
+    private static final Comparator<RecentBooking> NEWEST_FIRST = Comparator
+            .comparing(RecentBooking::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(RecentBooking::id, Comparator.reverseOrder());
+
+    private final BookingRepository bookingRepository;
+    private final int capacity;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile RecentBooking[] newest = new RecentBooking[0];
+    // True while the window holds every booking in the table, so misses need no query
+    private volatile boolean complete;
+    private volatile boolean loaded;
+
+    public RecentBookingsFeed(BookingRepository bookingRepository,
+                              @Value("${drivesmart.bookings.recent-feed-size:200}") int capacity) {
+        this.bookingRepository = bookingRepository;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public List<RecentBooking> recent(int limit) {
+        return recent(limit, null, null, null);
+    }
+
+    // Newest bookings matching every non-null filter
+    public List<RecentBooking> recent(int limit, Long userId, Long carId, BookingStatus status) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        ensureLoaded();
+        RecentBooking[] window = newest;
+        boolean windowComplete = complete;
+        List<RecentBooking> result = new ArrayList<>(Math.min(limit, window.length));
+        for (RecentBooking booking : window) {
+            if ((userId == null || userId.equals(booking.userId()))
+                    && (carId == null || carId.equals(booking.carId()))
+                    && (status == null || status == booking.status())) {
+                result.add(booking);
+                if (result.size() == limit) {
+                    return result;
+                }
+            }
+        }
+        if (windowComplete) {
+            return result;
+        }
+        return bookingRepository.findRecent(userId, carId, status, PageRequest.of(0, limit));
+    }
+
+    // Called after a booking is created or changes status
+    public void update(Booking booking) {
+        if (booking == null || booking.getId() == null || booking.getUser() == null || booking.getCar() == null) {
+            return;
+        }
+        ensureLoaded();
+        writeLock.lock();
+        try {
+            RecentBooking[] window = newest;
+            for (int i = 0; i < window.length; i++) {
+                if (window[i].id().equals(booking.getId())) {
+                    RecentBooking[] copy = window.clone();
+                    copy[i] = window[i].withStatus(booking.getStatus());
+                    newest = copy;
+                    return;
+                }
+            }
+            insert(RecentBooking.of(booking));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            List<RecentBooking> rows = bookingRepository.findRecent(null, null, null, PageRequest.of(0, capacity));
+            newest = rows.toArray(RecentBooking[]::new);
+            complete = rows.size() < capacity;
+            loaded = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void insert(RecentBooking booking) {
+        RecentBooking[] window = newest;
+        int position = Arrays.binarySearch(window, booking, NEWEST_FIRST);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (position >= capacity) {
+            return; // older than anything kept
+        }
+        boolean full = window.length == capacity;
+        RecentBooking[] copy = new RecentBooking[full ? capacity : window.length + 1];
+        System.arraycopy(window, 0, copy, 0, position);
+        copy[position] = booking;
+        System.arraycopy(window, position, copy, position + 1, copy.length - position - 1);
+        if (full) {
+            complete = false;
+        }
+        newest = copy;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            writeLock.lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+}
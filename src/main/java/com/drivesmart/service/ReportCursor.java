@@ -0,0 +1,41 @@
+package com.drivesmart.service;
+
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streaming reads for reports that scan large ranges of bookings. Queries run on a
+ * forward-only cursor with a fixed fetch size inside a read-only transaction, since
+ * PostgreSQL only streams results with autocommit off. Row callbacks see each row as it
+ * arrives, so memory stays flat however many rows the range holds. The transaction is
+ * REPEATABLE READ: under PostgreSQL's default READ COMMITTED every statement takes a
+ * snapshot of its own, and a report's queries could disagree about a concurrent write.
+ */
+@Component
+public class ReportCursor {
+
+    private final JdbcTemplate cursor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ReportCursor(DataSource dataSource, PlatformTransactionManager transactionManager,
+                        @Value("${drivesmart.reports.cursor-fetch-size:1000}") int fetchSize) {
+        this.cursor = new JdbcTemplate(dataSource);
+        this.cursor.setFetchSize(Math.max(1, fetchSize));
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    // Runs the queries in one read-only REPEATABLE READ transaction, so they all see one snapshot
+    public void read(Consumer<JdbcTemplate> queries) {
+        readOnlyTransaction.executeWithoutResult(tx -> queries.accept(cursor));
+    }
+}
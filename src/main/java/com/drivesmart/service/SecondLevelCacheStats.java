@@ -0,0 +1,79 @@
+package com.drivesmart.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToLongFunction;
+
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.cache.spi.QueryResultsRegion;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.dto.CacheRegionStat;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Per-region counters of the Hibernate second-level cache (entity and query regions, see
+ * ehcache.xml), read from Hibernate statistics for the admin metrics page and the
+ * Prometheus export. Empty when statistics or the cache are switched off.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    private final Statistics statistics;
+    private final CacheImplementor cache;
+
+    public SecondLevelCacheStats(EntityManagerFactory entityManagerFactory) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.statistics = sessionFactory.getStatistics();
+        this.cache = sessionFactory.getCache();
+    }
+
+    public List<CacheRegionStat> getRegions() {
+        List<CacheRegionStat> regions = new ArrayList<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return regions;
+        }
+        String[] names = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(names);
+        for (String name : names) {
+            Region region = cache.getRegion(name);
+            // The update-timestamps region has no hit statistics of its own
+            if (!(region instanceof DomainDataRegion) && !(region instanceof QueryResultsRegion)) {
+                continue;
+            }
+            CacheRegionStatistics counts = statistics.getCacheRegionStatistics(name);
+            if (counts != null) {
+                regions.add(new CacheRegionStat(name, region instanceof DomainDataRegion ? "entity" : "query",
+                        counts.getHitCount(), counts.getMissCount(), counts.getPutCount()));
+            }
+        }
+        return regions;
+    }
+
+    // Prometheus counters per region, appended to the latency export
+    public String toPrometheus() {
+        List<CacheRegionStat> regions = getRegions();
+        StringBuilder out = new StringBuilder();
+        appendCounter(out, "drivesmart_cache_hits_total", regions, CacheRegionStat::hits);
+        appendCounter(out, "drivesmart_cache_misses_total", regions, CacheRegionStat::misses);
+        appendCounter(out, "drivesmart_cache_puts_total", regions, CacheRegionStat::puts);
+        return out.toString();
+    }
+
+    private static void appendCounter(StringBuilder out, String metric, List<CacheRegionStat> regions,
+                                      ToLongFunction<CacheRegionStat> value) {
+        out.append("# TYPE ").append(metric).append(" counter\n");
+        for (CacheRegionStat region : regions) {
+            out.append(String.format(Locale.ROOT, "%s{region=\"%s\",kind=\"%s\"} %d\n",
+                    metric, region.region(), region.kind(), value.applyAsLong(region)));
+        }
+    }
+}
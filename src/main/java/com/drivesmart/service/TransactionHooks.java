@@ -0,0 +1,25 @@
+package com.drivesmart.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Work that must not run ahead of the surrounding transaction, such as updating in-memory state
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    // Runs once the current transaction commits, never after a rollback; at once when there is none
+    static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
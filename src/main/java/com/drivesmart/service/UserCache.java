@@ -0,0 +1,130 @@
+package com.drivesmart.service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+
+/**
+ * Users by email, bounded LRU with a time-to-live. Entries are immutable snapshots and
+ * every read hands out a fresh detached User, so callers may modify and save what they
+ * get. UserService evicts on each write; an eviction also voids loads that started
+ * before it, so a stale row read concurrently is never cached.
+ */
+@Component
+public class UserCache {
+
+    private record Entry(Long id, String email, String password, String fullName, String phoneNumber,
+                         UserRole role, Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt,
+                         long loadedAtNanos) {
+
+        static Entry of(User user, long now) {
+            return new Entry(user.getId(), user.getEmail(), user.getPassword(), user.getFullName(),
+                    user.getPhoneNumber(), user.getRole(), user.getIsActive(), user.getCreatedAt(),
+                    user.getUpdatedAt(), now);
+        }
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setEmail(email);
+            user.setPassword(password);
+            user.setFullName(fullName);
+            user.setPhoneNumber(phoneNumber);
+            user.setRole(role);
+            user.setIsActive(isActive);
+            user.setCreatedAt(createdAt);
+            user.setUpdatedAt(updatedAt);
+            return user;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Access-ordered, guarded by itself
+    private final LinkedHashMap<String, Entry> cache = new LinkedHashMap<>(64, 0.75f, true);
+    // Bumped by every eviction; a load only caches its result if no eviction happened meanwhile
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public UserCache(@Value("${drivesmart.users.cache-max-entries:10000}") int maxEntries,
+                     @Value("${drivesmart.users.cache-ttl-seconds:300}") long ttlSeconds) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    public Optional<User> get(String email, Supplier<Optional<User>> loader) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (cache) {
+            entry = cache.get(email);
+            if (entry != null && now - entry.loadedAtNanos() > ttlNanos) {
+                cache.remove(email);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            hits.incrementAndGet();
+            return Optional.of(entry.toUser());
+        }
+        misses.incrementAndGet();
+
+        long epoch = evictions.get();
+        Optional<User> loaded = loader.get();
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        Entry fresh = Entry.of(loaded.get(), now);
+        synchronized (cache) {
+            if (evictions.get() == epoch) {
+                cache.put(email, fresh);
+                var eldest = cache.entrySet().iterator();
+                while (cache.size() > maxEntries && eldest.hasNext()) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return Optional.of(fresh.toUser());
+    }
+
+    public void evict(String email) {
+        synchronized (cache) {
+            evictions.incrementAndGet();
+            if (email != null) {
+                cache.remove(email);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            evictions.incrementAndGet();
+            cache.clear();
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        synchronized (cache) {
+            stats.put("entries", (long) cache.size());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,49 @@
+package com.drivesmart.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.drivesmart.entity.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Widens users.password on databases created while it was VARCHAR(100). Hibernate's
+ * schema update adds missing columns but never changes the length of existing ones,
+ * and a {pbkdf2} hash needs 104 characters.
+ */
+@Component
+public class UserPasswordColumn implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UserPasswordColumn.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The factory dependency orders this after the schema update
+    public UserPasswordColumn(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        widen();
+    }
+
+    public void widen() {
+        List<Integer> lengths = jdbcTemplate.queryForList("SELECT character_maximum_length FROM information_schema.columns "
+                + "WHERE LOWER(table_name) = 'users' AND LOWER(column_name) = 'password'", Integer.class);
+        for (Integer length : lengths) {
+            if (length != null && length < User.PASSWORD_LENGTH) {
+                jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN password SET DATA TYPE VARCHAR("
+                        + User.PASSWORD_LENGTH + ")");
+                log.info("Widened users.password from {} to {} characters", length, User.PASSWORD_LENGTH);
+                return;
+            }
+        }
+    }
+}
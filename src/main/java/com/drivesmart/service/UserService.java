@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
+import com.drivesmart.entity.AuditLevel;
 import com.drivesmart.entity.User;
 import com.drivesmart.entity.UserRole;
 import com.drivesmart.repository.UserRepository;
@@ -21,10 +22,23 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private DashboardStats dashboardStats;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private DataVersions dataVersions;
+
     // REMOVE PasswordEncoder from here
 
+    // Served from UserCache; the returned User is a detached copy
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.get(email, () -> userRepository.findByEmail(email));
     }
 
     public List<User> findByRole(UserRole role) {
@@ -37,7 +51,15 @@ public class UserService {
 
     public User saveUser(User user) {
         Objects.requireNonNull(user, "User cannot be null");
-        return userRepository.save(user);
+        User previous = user.getId() == null ? null : storedState(user.getId());
+        User saved = userRepository.save(user);
+        if (previous != null) {
+            evict(previous.getEmail());
+        }
+        evict(saved.getEmail());
+        dashboardStats.userSaved(previous, saved);
+        dataVersions.changed(DataVersions.Aggregate.USER);
+        return saved;
     }
 
     public User registerUser(User user) {
@@ -47,7 +69,10 @@ public class UserService {
             throw new RuntimeException("Email already exists");
         }
         user.setIsActive(true);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        dashboardStats.userSaved(null, saved);
+        dataVersions.changed(DataVersions.Aggregate.USER);
+        return saved;
     }
 
     public Optional<User> findById(@NonNull Long id) {
@@ -60,7 +85,13 @@ public class UserService {
     }
 
     public void deleteUser(@NonNull Long id) {
+        User previous = storedState(id);
         userRepository.deleteById(id);
+        if (previous != null) {
+            evict(previous.getEmail());
+            dashboardStats.userDeleted(previous);
+        }
+        dataVersions.changed(DataVersions.Aggregate.USER);
     }
 
     public long countUsers() {
@@ -74,18 +105,49 @@ public class UserService {
 
     public void toggleUserStatus(@NonNull Long id) {
         User user = findById(id).orElseThrow(() -> new RuntimeException("User not found"));
+        User previous = new User();
+        previous.setRole(user.getRole());
+        previous.setIsActive(user.getIsActive());
         user.setIsActive(!user.getIsActive());
         userRepository.save(user);
+        evict(user.getEmail());
+        dashboardStats.userSaved(previous, user);
+        dataVersions.changed(DataVersions.Aggregate.USER);
+        auditLogService.record("USER_STATUS", user.getEmail() + (user.getIsActive() ? " activated" : " deactivated"),
+                AuditLevel.WARNING);
+    }
+
+    public List<User> findRecentUsers() {
+        return userRepository.findTop5ByOrderByIdDesc();
+    }
+
+    // Now, and again once the change commits: a lookup between the two still reads the old row and
+    // may cache it, which would otherwise keep a disabled account signed in until the entry expires
+    private void evict(String email) {
+        userCache.evict(email);
+        TransactionHooks.afterCommit(() -> userCache.evict(email));
+    }
+
+    // Email, role and active flag as stored, read as scalars so a modified managed instance is not consulted
+    private User storedState(Long id) {
+        List<Object[]> rows = userRepository.findStateById(id);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        User stored = new User();
+        stored.setEmail((String) rows.get(0)[0]);
+        stored.setRole((UserRole) rows.get(0)[1]);
+        stored.setIsActive((Boolean) rows.get(0)[2]);
+        return stored;
     }
 
     public Map<String, Object> generateUserActivityReport(LocalDate startDate, LocalDate endDate) {
         Map<String, Object> report = new HashMap<>();
-        List<User> allUsers = getAllUsers();
 
         // Simple activity report (in a real app, you'd track login times, etc.)
-        report.put("totalUsers", allUsers.size());
-        report.put("activeUsers", allUsers.stream().filter(User::getIsActive).count());
-        report.put("inactiveUsers", allUsers.stream().filter(u -> !u.getIsActive()).count());
+        report.put("totalUsers", (int) dashboardStats.getTotalUsers());
+        report.put("activeUsers", dashboardStats.getActiveUsers());
+        report.put("inactiveUsers", dashboardStats.getInactiveUsers());
         report.put("newUsers", 0); // Would need creation date tracking
 
         return report;
@@ -0,0 +1,14 @@
+package com.drivesmart.config;
+
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BcryptPasswordLoginTest extends PasswordLoginTest {
+
+    @Override
+    protected String algorithm() {
+        return "bcrypt";
+    }
+}
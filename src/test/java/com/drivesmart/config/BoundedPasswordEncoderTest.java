@@ -0,0 +1,91 @@
+package com.drivesmart.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.drivesmart.service.LatencyMetrics;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void fullQueueFailsFastAndEncodingStaysOnTheCaller() throws Exception {
+        BlockingEncoder delegate = new BlockingEncoder();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, new LatencyMetrics(), 1, 1, 10_000)) {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("slow", "slow"));
+            assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("fast", "fast"));
+            awaitQueued(encoder, 1);
+
+            assertThrows(AuthenticationServiceException.class, () -> encoder.matches("fast", "fast"));
+            assertEquals("encoded", encoder.encode("fast"));
+
+            delegate.release.countDown();
+            assertTrue(running.get(5, TimeUnit.SECONDS));
+            assertTrue(queued.get(5, TimeUnit.SECONDS));
+            assertEquals(1L, encoder.getStats().get("rejected"));
+            assertEquals(0L, encoder.getStats().get("timedOut"));
+        }
+    }
+
+    @Test
+    void waitBeyondMaxWaitFailsFastAndThePoolRecovers() throws Exception {
+        BlockingEncoder delegate = new BlockingEncoder();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, new LatencyMetrics(), 1, 4, 100)) {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("slow", "slow"));
+            assertTrue(delegate.entered.await(5, TimeUnit.SECONDS));
+
+            assertThrows(AuthenticationServiceException.class, () -> encoder.matches("fast", "fast"));
+            ExecutionException slow = assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+            assertTrue(slow.getCause() instanceof AuthenticationServiceException);
+            assertEquals(2L, encoder.getStats().get("timedOut"));
+
+            // The timed-out tasks were cancelled, so the worker is free for the next sign-in
+            assertTrue(encoder.matches("fast", "fast"));
+            assertEquals(0L, encoder.getStats().get("rejected"));
+        }
+    }
+
+    private static void awaitQueued(BoundedPasswordEncoder encoder, long queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.getStats().get("queued") < queued && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(queued, encoder.getStats().get("queued"));
+    }
+
+    // Verifying "slow" holds the pool thread until released or interrupted
+    private static final class BlockingEncoder implements PasswordEncoder {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "encoded";
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if ("slow".contentEquals(rawPassword)) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
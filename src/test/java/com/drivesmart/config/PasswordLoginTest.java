@@ -0,0 +1,70 @@
+package com.drivesmart.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
+import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.service.UserService;
+
+// Registration and sign-in under one configured algorithm; subclasses pick it
+abstract class PasswordLoginTest {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected UserService userService;
+
+    protected abstract String algorithm();
+
+    @Test
+    void registeredUserCanSignIn() throws Exception {
+        String email = "register-" + algorithm() + "@login.drivesmart.com";
+        mockMvc.perform(post("/register")
+                        .param("email", email)
+                        .param("password", "correct-horse")
+                        .param("fullName", "Login Tester")
+                        .param("phoneNumber", "+1000000000")
+                        .param("role", "CUSTOMER"))
+                .andExpect(redirectedUrl("/login"));
+
+        String stored = userService.findByEmail(email).orElseThrow().getPassword();
+        assertTrue(stored.startsWith("{" + algorithm() + "}"), stored);
+        assertTrue(stored.length() <= User.PASSWORD_LENGTH);
+
+        mockMvc.perform(formLogin("/process-login").user(email).password("correct-horse"))
+                .andExpect(authenticated().withUsername(email))
+                .andExpect(redirectedUrl("/"));
+        mockMvc.perform(formLogin("/process-login").user(email).password("wrong-horse"))
+                .andExpect(unauthenticated())
+                .andExpect(redirectedUrl("/login?error=true"));
+    }
+
+    // Hashes from before the {id} prefix are plain bcrypt; a successful login rewrites them
+    @Test
+    void legacyHashIsUpgradedOnSignIn() throws Exception {
+        String email = "legacy-" + algorithm() + "@login.drivesmart.com";
+        String legacy = new BCryptPasswordEncoder(4).encode("old-password");
+        userService.saveUser(new User(email, legacy, "Legacy Tester", "+1000000000", UserRole.CUSTOMER));
+
+        mockMvc.perform(formLogin("/process-login").user(email).password("old-password"))
+                .andExpect(authenticated().withUsername(email));
+
+        String upgraded = userService.findByEmail(email).orElseThrow().getPassword();
+        assertTrue(upgraded.startsWith("{" + algorithm() + "}"), upgraded);
+        mockMvc.perform(formLogin("/process-login").user(email).password("old-password"))
+                .andExpect(authenticated().withUsername(email));
+        assertEquals(upgraded, userService.findByEmail(email).orElseThrow().getPassword());
+    }
+}
@@ -0,0 +1,52 @@
+package com.drivesmart.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.drivesmart.entity.User;
+import com.drivesmart.service.UserPasswordColumn;
+
+@SpringBootTest(properties = "drivesmart.security.password.algorithm=pbkdf2")
+@AutoConfigureMockMvc
+class Pbkdf2PasswordLoginTest extends PasswordLoginTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserPasswordColumn passwordColumn;
+
+    @Override
+    protected String algorithm() {
+        return "pbkdf2";
+    }
+
+    @Test
+    void narrowPasswordColumnIsWidened() {
+        // Existing hashes may not fit the old width, so park them while the column is narrowed
+        List<Map<String, Object>> saved = jdbcTemplate.queryForList("SELECT id, password FROM users");
+        jdbcTemplate.update("UPDATE users SET password = 'parked'");
+        try {
+            jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN password SET DATA TYPE VARCHAR(100)");
+            passwordColumn.widen();
+            assertEquals(User.PASSWORD_LENGTH, width());
+        } finally {
+            for (Map<String, Object> row : saved) {
+                jdbcTemplate.update("UPDATE users SET password = ? WHERE id = ?", row.get("PASSWORD"), row.get("ID"));
+            }
+        }
+    }
+
+    private int width() {
+        return jdbcTemplate.queryForObject("SELECT character_maximum_length FROM information_schema.columns "
+                + "WHERE LOWER(table_name) = 'users' AND LOWER(column_name) = 'password'", Integer.class);
+    }
+}
@@ -0,0 +1,89 @@
+package com.drivesmart.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+// The .gz and .br variants the build writes for main assets are left out by -Dassets.skip, so the
+// encoding checks use a fixture under src/test/resources/static/js that carries its own
+@SpringBootTest
+@AutoConfigureMockMvc
+class StaticAssetsConfigTest {
+
+    private static final String IMMUTABLE = "max-age=31536000, public, immutable";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @Test
+    void fingerprintedUrlIsCachedAsImmutable() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/css/main.css");
+        assertNotNull(url);
+        assertTrue(url.matches("/css/main-[0-9a-f]{32}\\.css"), url);
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE))
+                .andExpect(content().bytes(bytes("static/css/main.css")));
+        mockMvc.perform(get("/css/main-" + "0".repeat(32) + ".css"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void plainUrlRevalidates() throws Exception {
+        mockMvc.perform(get("/css/main.css"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+    }
+
+    @Test
+    void precompressedVariantFollowsAcceptEncoding() throws Exception {
+        mockMvc.perform(get("/js/encoding-fixture.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().bytes(bytes("static/js/encoding-fixture.js.br")));
+        mockMvc.perform(get("/js/encoding-fixture.js").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(bytes("static/js/encoding-fixture.js.gz")));
+        mockMvc.perform(get("/js/encoding-fixture.js"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(bytes("static/js/encoding-fixture.js")));
+    }
+
+    @Test
+    void fingerprintedVariantIsImmutableToo() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/js/encoding-fixture.js");
+        assertNotNull(url);
+
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "br"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, IMMUTABLE))
+                .andExpect(content().bytes(bytes("static/js/encoding-fixture.js.br")));
+    }
+
+    private static byte[] bytes(String path) throws IOException {
+        return new ClassPathResource(path).getContentAsByteArray();
+    }
+}
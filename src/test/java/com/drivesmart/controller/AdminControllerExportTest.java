@@ -0,0 +1,107 @@
+package com.drivesmart.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.CarRepository;
+import com.drivesmart.service.UserService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminControllerExportTest {
+
+    private static final String EXPORT = "/admin/reports/bookings.csv";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Test
+    void plainAndGzippedExportsCarryTheSameCsv() throws Exception {
+        User admin = account("export-admin", UserRole.ADMIN);
+        Car car = carRepository.save(new Car("Export", "Gzip", "EXP-GZIP-1", 2022, "Black", 10.0));
+        Booking booking = new Booking(admin, car, LocalDate.of(2172, 6, 1), LocalDate.of(2172, 6, 2), 20.0);
+        booking.setStatus(BookingStatus.COMPLETED);
+        bookingRepository.save(booking);
+        RequestPostProcessor signedIn = user(admin.getEmail()).roles("ADMIN");
+
+        byte[] plain = mockMvc.perform(get(EXPORT).with(signedIn)
+                        .param("startDate", "2172-06-01").param("endDate", "2172-06-30"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"bookings-2172-06-01-to-2172-06-30.csv\""))
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] gzipped = mockMvc.perform(get(EXPORT).with(signedIn)
+                        .param("startDate", "2172-06-01").param("endDate", "2172-06-30").param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"bookings-2172-06-01-to-2172-06-30.csv.gz\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        String csv = new String(plain, StandardCharsets.UTF_8);
+        assertEquals(2, csv.split("\n").length);
+        assertTrue(csv.split("\n")[1].startsWith(booking.getId() + ","), csv);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertEquals(csv, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void reversedOrMissingRangeIsBadRequest() throws Exception {
+        RequestPostProcessor signedIn = user(account("export-range", UserRole.ADMIN).getEmail()).roles("ADMIN");
+
+        mockMvc.perform(get(EXPORT).with(signedIn).param("startDate", "2172-06-30").param("endDate", "2172-06-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(EXPORT).with(signedIn).param("startDate", "2172-06-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(EXPORT).with(signedIn).param("startDate", "01/06/2172").param("endDate", "2172-06-30"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void onlyAdminsMayExport() throws Exception {
+        RequestPostProcessor worker = user(account("export-worker", UserRole.WORKER).getEmail()).roles("WORKER");
+
+        mockMvc.perform(get(EXPORT).with(worker).param("startDate", "2172-06-01").param("endDate", "2172-06-30"))
+                .andExpect(status().isForbidden());
+    }
+
+    // The account must exist: ActiveAccountFilter signs out anyone it cannot find
+    private User account(String name, UserRole role) {
+        return userService.saveUser(new User(name + "@export.drivesmart.com", "secret-password",
+                "Export " + name, "+1000000000", role));
+    }
+}
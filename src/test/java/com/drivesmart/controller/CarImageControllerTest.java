@@ -0,0 +1,126 @@
+package com.drivesmart.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.service.CarImageStore;
+import com.drivesmart.service.CarService;
+import com.drivesmart.service.UserService;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CarImageControllerTest {
+
+    // Not a decodable image, so every size is served as this file
+    private static final byte[] IMAGE = "image-controller-test: 0123456789abcdefghijklmnopqrstuvwxyz"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarImageStore imageStore;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CarService carService;
+
+    private RequestPostProcessor signedIn;
+    private String hash;
+
+    @BeforeEach
+    void storeImage() throws Exception {
+        String email = "images@controller.drivesmart.com";
+        if (userService.findByEmail(email).isEmpty()) {
+            userService.saveUser(new User(email, "secret-password", "Image Viewer", "+1000000000", UserRole.CUSTOMER));
+        }
+        signedIn = user(email).roles("CUSTOMER");
+        hash = imageStore.store(IMAGE);
+    }
+
+    @Test
+    void wholeImageIsCachedForever() throws Exception {
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, IMAGE.length))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", \"" + hash + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void singleRangesArePartialContent() throws Exception {
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn).header(HttpHeaders.RANGE, "bytes=5-14"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-14/" + IMAGE.length))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, 5, 15)));
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn).header(HttpHeaders.RANGE, "bytes=-6"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, IMAGE.length - 6, IMAGE.length)));
+
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn).header(HttpHeaders.RANGE, "bytes=" + IMAGE.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + IMAGE.length));
+    }
+
+    @Test
+    void staleIfRangeGetsTheWholeImage() throws Exception {
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn)
+                        .header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(IMAGE));
+        mockMvc.perform(get("/cars/images/" + hash).with(signedIn)
+                        .header(HttpHeaders.RANGE, "bytes=0-3").header(HttpHeaders.IF_RANGE, "\"" + hash + "\""))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, 0, 4)));
+    }
+
+    @Test
+    void carIdLinksServeTheStoredImage() throws Exception {
+        Car car = new Car("ImageTest", "Model", "IMAGE-1", 2022, "Black", 10.0);
+        car.setImageHash(hash);
+        car = carService.saveCar(car);
+
+        mockMvc.perform(get("/cars/image/" + car.getId()).with(signedIn).header(HttpHeaders.RANGE, "bytes=0-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                .andExpect(content().bytes(Arrays.copyOfRange(IMAGE, 0, 4)));
+        mockMvc.perform(get("/cars/images/" + "0".repeat(64)).with(signedIn))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/cars/images/not-a-hash").with(signedIn))
+                .andExpect(status().isNotFound());
+    }
+}
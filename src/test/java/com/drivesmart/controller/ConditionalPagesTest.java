@@ -0,0 +1,137 @@
+package com.drivesmart.controller;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.service.BookingService;
+import com.drivesmart.service.CarService;
+import com.drivesmart.service.UserService;
+
+// Data versions are shared by the whole context, so each step compares a tag with the one just
+// before it rather than with a fixed value
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalPagesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void bookingListIsRenderedAgainAfterEveryWriteItShows() throws Exception {
+        User admin = account("etag-admin", UserRole.ADMIN);
+        RequestPostProcessor asAdmin = user(admin.getEmail()).roles("ADMIN");
+        Car car = carService.saveCar(new Car("EtagTest", "Model", "ETAG-1", 2022, "Black", 10.0));
+
+        String tag = renderedTag("/bookings", asAdmin);
+        assertNotModified("/bookings", asAdmin, tag);
+
+        bookingService.createBooking(admin.getId(), car.getId(), LocalDate.of(2188, 1, 1), LocalDate.of(2188, 1, 2));
+        tag = assertModified("/bookings", asAdmin, tag);
+
+        car.setColor("White");
+        carService.saveCar(car);
+        tag = assertModified("/bookings", asAdmin, tag);
+
+        account("etag-other", UserRole.CUSTOMER);
+        tag = assertModified("/bookings", asAdmin, tag);
+
+        // A write that rolls back changes nothing the page shows
+        transactionTemplate.executeWithoutResult(tx -> {
+            carService.saveCar(new Car("EtagTest", "Model", "ETAG-2", 2022, "Black", 10.0));
+            tx.setRollbackOnly();
+        });
+        assertNotModified("/bookings", asAdmin, tag);
+    }
+
+    @Test
+    void pagesOnlyFollowTheAggregatesTheyRender() throws Exception {
+        User customer = account("etag-customer", UserRole.CUSTOMER);
+        RequestPostProcessor asCustomer = user(customer.getEmail()).roles("CUSTOMER");
+        Car car = carService.saveCar(new Car("EtagTest", "Model", "ETAG-3", 2022, "Black", 10.0));
+        String cars = renderedTag("/cars", asCustomer);
+        String apiCars = renderedTag("/api/v1/cars", asCustomer);
+
+        // Users are not on either page
+        account("etag-unrelated", UserRole.CUSTOMER);
+        assertNotModified("/cars", asCustomer, cars);
+        assertNotModified("/api/v1/cars", asCustomer, apiCars);
+
+        // The car list shows availability, the API car list does not
+        bookingService.createBooking(customer.getId(), car.getId(), LocalDate.of(2189, 1, 1), LocalDate.of(2189, 1, 2));
+        cars = assertModified("/cars", asCustomer, cars);
+        assertNotModified("/api/v1/cars", asCustomer, apiCars);
+
+        carService.deleteCar(carService.saveCar(new Car("EtagTest", "Model", "ETAG-4", 2022, "Black", 10.0)).getId());
+        assertModified("/cars", asCustomer, cars);
+        assertModified("/api/v1/cars", asCustomer, apiCars);
+    }
+
+    @Test
+    void tagsAreNotSharedBetweenViewers() throws Exception {
+        RequestPostProcessor first = user(account("etag-first", UserRole.CUSTOMER).getEmail()).roles("CUSTOMER");
+        RequestPostProcessor second = user(account("etag-second", UserRole.CUSTOMER).getEmail()).roles("CUSTOMER");
+
+        String tag = renderedTag("/cars", first);
+
+        assertNotEquals(tag, assertModified("/cars", second, tag));
+    }
+
+    private String renderedTag(String page, RequestPostProcessor viewer) throws Exception {
+        String tag = mockMvc.perform(get(page).with(viewer))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(tag);
+        return tag;
+    }
+
+    private void assertNotModified(String page, RequestPostProcessor viewer, String tag) throws Exception {
+        mockMvc.perform(get(page).with(viewer).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified());
+    }
+
+    // A 200 with a new tag for the client's old one; returns the new tag
+    private String assertModified(String page, RequestPostProcessor viewer, String tag) throws Exception {
+        String fresh = mockMvc.perform(get(page).with(viewer).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(fresh);
+        assertNotEquals(tag, fresh);
+        return fresh;
+    }
+
+    private User account(String name, UserRole role) {
+        return userService.saveUser(new User(name + "@etag.drivesmart.com", "secret-password",
+                "Etag " + name, "+1000000000", role));
+    }
+}
@@ -0,0 +1,219 @@
+package com.drivesmart.controller;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.CarRepository;
+import com.drivesmart.service.BookingService;
+import com.drivesmart.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MobileApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Test
+    void cursorPagingVisitsEveryCarOnceAndEndsWithNullNext() throws Exception {
+        RequestPostProcessor customer = signedIn("paging", UserRole.CUSTOMER);
+        for (int i = 0; i < 3; i++) {
+            car("API-PAGE-" + i);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/v1/cars").with(customer)
+                    .param("limit", "2").param("fields", "id");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = json(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            JsonNode data = page.get("data");
+            assertTrue(data.size() <= 2);
+            data.forEach(car -> ids.add(car.get("id").asLong()));
+            cursor = page.get("next").isNull() ? null : page.get("next").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(carRepository.count(), ids.size());
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+        assertEquals((ids.size() + 1) / 2, pages);
+    }
+
+    @Test
+    void malformedCursorOrLimitIsBadRequest() throws Exception {
+        RequestPostProcessor customer = signedIn("bad-cursor", UserRole.CUSTOMER);
+        String notANumber = Base64.getUrlEncoder().encodeToString("abc".getBytes(StandardCharsets.US_ASCII));
+
+        mockMvc.perform(get("/api/v1/cars").with(customer).param("cursor", "%%%"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid cursor"));
+        mockMvc.perform(get("/api/v1/cars").with(customer).param("cursor", notANumber))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/bookings").with(customer).param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/cars").with(customer).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void fieldsSelectsAndOrdersTheReturnedFields() throws Exception {
+        RequestPostProcessor customer = signedIn("fields", UserRole.CUSTOMER);
+        Car car = car("API-FIELDS-1");
+
+        JsonNode body = json(mockMvc.perform(get("/api/v1/cars/" + car.getId()).with(customer)
+                        .param("fields", "pricePerDay, id,brand,id"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        List<String> names = new ArrayList<>();
+        body.fieldNames().forEachRemaining(names::add);
+        assertEquals(List.of("pricePerDay", "id", "brand"), names);
+        assertEquals(car.getId().longValue(), body.get("id").asLong());
+        assertEquals("ApiTest", body.get("brand").asText());
+
+        mockMvc.perform(get("/api/v1/cars").with(customer).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].licensePlate").exists())
+                .andExpect(jsonPath("$.data[0].thumbnailUrl").exists());
+    }
+
+    @Test
+    void unknownFieldIsBadRequest() throws Exception {
+        RequestPostProcessor customer = signedIn("unknown-field", UserRole.CUSTOMER);
+
+        mockMvc.perform(get("/api/v1/cars").with(customer).param("fields", "id,colour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(startsWith("Unknown field 'colour'")));
+        mockMvc.perform(get("/api/v1/bookings").with(customer).param("fields", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void customersSeeTheirOwnBookingsAndStaffSeeEveryone() throws Exception {
+        User first = customer("scope-first");
+        User second = customer("scope-second");
+        LocalDate start = LocalDate.now().plusDays(400);
+        Booking firstBooking = bookingService.createBooking(first.getId(), car("API-SCOPE-1").getId(), start, start.plusDays(2));
+        Booking secondBooking = bookingService.createBooking(second.getId(), car("API-SCOPE-2").getId(), start, start.plusDays(2));
+
+        JsonNode own = json(mockMvc.perform(get("/api/v1/bookings").with(user(first.getEmail()).roles("CUSTOMER"))
+                        .param("limit", "200"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(1, own.get("data").size());
+        assertEquals(firstBooking.getId().longValue(), own.get("data").get(0).get("id").asLong());
+        assertEquals(first.getId().longValue(), own.get("data").get(0).get("userId").asLong());
+        assertTrue(own.get("next").isNull());
+
+        Set<Long> seenByStaff = bookingIds(signedIn("scope-worker", UserRole.WORKER));
+        assertTrue(seenByStaff.contains(firstBooking.getId()));
+        assertTrue(seenByStaff.contains(secondBooking.getId()));
+        assertEquals(seenByStaff, bookingIds(signedIn("scope-admin", UserRole.ADMIN)));
+    }
+
+    @Test
+    void unauthenticatedApiRequestsGet401AndPagesStillRedirect() throws Exception {
+        mockMvc.perform(get("/api/v1/cars"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/bookings"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/cars"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("http://localhost/login"));
+    }
+
+    @Test
+    void disabledAccountGets401OnTheApiAndARedirectOnPages() throws Exception {
+        User disabled = customer("disabled");
+        disabled.setIsActive(false);
+        userService.saveUser(disabled);
+
+        mockMvc.perform(get("/api/v1/cars").with(user(disabled.getEmail()).roles("CUSTOMER")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/cars").with(user(disabled.getEmail()).roles("CUSTOMER")))
+                .andExpect(redirectedUrl("/login?disabled=true"));
+    }
+
+    // Newest first, so the bookings made by the test are on the first page
+    private Set<Long> bookingIds(RequestPostProcessor staff) throws Exception {
+        JsonNode page = json(mockMvc.perform(get("/api/v1/bookings").with(staff).param("limit", "200"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        Set<Long> ids = new HashSet<>();
+        page.get("data").forEach(booking -> ids.add(booking.get("id").asLong()));
+        assertFalse(ids.isEmpty());
+        return ids;
+    }
+
+    // The account must exist: ActiveAccountFilter signs out anyone it cannot find
+    private RequestPostProcessor signedIn(String name, UserRole role) {
+        return user(account(name, role).getEmail()).roles(role.name());
+    }
+
+    private User customer(String name) {
+        return account(name, UserRole.CUSTOMER);
+    }
+
+    private User account(String name, UserRole role) {
+        return userService.saveUser(new User(name + "@api.drivesmart.com", "secret-password",
+                "Api " + name, "+1000000000", role));
+    }
+
+    private Car car(String plate) {
+        return carRepository.save(new Car("ApiTest", "Model", plate, 2022, "Black", 40.0));
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,71 @@
+package com.drivesmart.controller;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.service.BookingService;
+import com.drivesmart.service.CarService;
+import com.drivesmart.service.UserService;
+
+// The virtual-threads profile turns open-session-in-view off, so every page must render from what
+// the services returned; a template reaching a lazy association would fail here with a 500
+@SpringBootTest(properties = "spring.jpa.open-in-view=false")
+@AutoConfigureMockMvc
+class OpenSessionInViewOffTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void everyPageRendersWithoutAnOpenSession() throws Exception {
+        User customer = account("osiv-customer", UserRole.CUSTOMER);
+        RequestPostProcessor asCustomer = user(customer.getEmail()).roles("CUSTOMER");
+        RequestPostProcessor asAdmin = user(account("osiv-admin", UserRole.ADMIN).getEmail()).roles("ADMIN");
+        Car car = carService.saveCar(new Car("OsivTest", "Model", "OSIV-1", 2022, "Black", 10.0));
+        LocalDate start = LocalDate.of(2175, 4, 1);
+        Booking booking = bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(2));
+
+        for (String page : new String[] {"/login", "/register"}) {
+            mockMvc.perform(get(page)).andExpect(status().isOk());
+        }
+        for (String page : new String[] {"/", "/home", "/cars", "/cars/details?id=" + car.getId(),
+                "/cars/search?query=osivtest", "/bookings", "/bookings/" + booking.getId(),
+                "/bookings/new?carId=" + car.getId() + "&startDate=2175-05-01&endDate=2175-05-03",
+                "/user/profile", "/user/edit-profile", "/user/change-password", "/access-denied"}) {
+            mockMvc.perform(get(page).with(asCustomer)).andExpect(status().isOk());
+        }
+        for (String page : new String[] {"/admin", "/admin/users", "/admin/reports", "/admin/settings",
+                "/admin/audit-logs", "/admin/metrics", "/bookings", "/bookings/admin-new", "/cars/add",
+                "/cars/edit?id=" + car.getId(), "/customers", "/customers/add"}) {
+            mockMvc.perform(get(page).with(asAdmin)).andExpect(status().isOk());
+        }
+    }
+
+    private User account(String name, UserRole role) {
+        return userService.saveUser(new User(name + "@osiv.drivesmart.com", "secret-password",
+                "Osiv " + name, "+1000000000", role));
+    }
+}
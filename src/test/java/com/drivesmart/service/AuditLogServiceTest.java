@@ -0,0 +1,64 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.drivesmart.entity.AuditLevel;
+import com.drivesmart.entity.AuditLog;
+import com.drivesmart.repository.AuditLogRepository;
+
+// Entries are stamped far in the future, so they head the newest-first pages ahead of anything
+// the other tests in this context record
+@SpringBootTest
+class AuditLogServiceTest {
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Test
+    void blankSearchKeepsEntriesWithoutDetails() {
+        AuditLog bare = entry(LocalDateTime.of(2190, 1, 1, 12, 0), "AUDIT_BARE", null);
+
+        assertEquals(bare.getId(), firstId("   "));
+        assertEquals(bare.getId(), firstId(null));
+        assertEquals(bare.getId(), firstId("audit_bare"));
+    }
+
+    @Test
+    void wildcardsInTheSearchAreLiteral() {
+        AuditLog percent = entry(LocalDateTime.of(2191, 1, 1, 12, 0), "AUDIT_LIKE", "discount 100% off");
+        AuditLog other = entry(LocalDateTime.of(2191, 1, 1, 12, 1), "AUDIT_LIKE", "discount 1000 off");
+
+        assertEquals(List.of(percent.getId()), ids("100%"));
+        assertEquals(List.of(other.getId(), percent.getId()), ids("DISCOUNT 100"));
+        assertEquals(List.of(), ids("audit_like_"));
+    }
+
+    private Long firstId(String search) {
+        return auditLogService.getAuditLogs(search, null, null, null, 1).getLogs().get(0).getId();
+    }
+
+    private List<Long> ids(String search) {
+        return auditLogService.getAuditLogs(search, null, null, null, 50).getLogs().stream()
+                .map(AuditLog::getId).toList();
+    }
+
+    private AuditLog entry(LocalDateTime timestamp, String action, String details) {
+        AuditLog log = new AuditLog();
+        log.setTimestamp(timestamp);
+        log.setUsername("audit-test");
+        log.setAction(action);
+        log.setDetails(details);
+        log.setLevel(AuditLevel.SUCCESS);
+        return auditLogRepository.save(log);
+    }
+}
@@ -0,0 +1,120 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.CarRepository;
+import com.drivesmart.repository.UserRepository;
+
+// Minutes of load, so it only runs with -Pstress; BookingServiceAvailabilityTest races a few writers by default
+@SpringBootTest
+@Tag("stress")
+class BookingConcurrencyStressTest {
+
+    private static final int CARS = 20;
+    private static final int THREADS = 32;
+    private static final int REQUESTS = 4000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void overlappingRequestsNeverDoubleBookACar() throws Exception {
+        User customer = userRepository.save(new User("stress@drivesmart.com", "secret-password",
+                "Stress Tester", "+1000000000", UserRole.CUSTOMER));
+        List<Long> carIds = new ArrayList<>();
+        for (int i = 0; i < CARS; i++) {
+            Car car = carRepository.save(new Car("Brand" + i, "Model", "STRESS-" + i, 2022, "Black", 50.0));
+            carIds.add(car.getId());
+        }
+
+        LocalDate base = LocalDate.now().plusDays(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                Long carId = carIds.get(random.nextInt(CARS));
+                LocalDate from = base.plusDays(random.nextInt(60));
+                LocalDate to = from.plusDays(random.nextInt(5));
+                try {
+                    start.await();
+                    bookingService.createBooking(customer.getId(), carId, from, to);
+                    created.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if ("Car is not available for the selected dates".equals(e.getMessage())) {
+                        rejected.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES), "stress run did not finish");
+
+        assertEquals(0, failed.get(), "unexpected booking failures");
+        assertEquals(REQUESTS, created.get() + rejected.get());
+        assertTrue(created.get() > 0);
+
+        Map<Long, List<Booking>> byCar = bookingRepository.findAll().stream()
+                .filter(b -> carIds.contains(b.getCar().getId()))
+                .collect(Collectors.groupingBy(b -> b.getCar().getId()));
+        assertEquals(created.get(), byCar.values().stream().mapToInt(List::size).sum());
+        for (List<Booking> bookings : byCar.values()) {
+            bookings.sort(Comparator.comparing(Booking::getStartDate));
+            for (int i = 1; i < bookings.size(); i++) {
+                assertTrue(bookings.get(i).getStartDate().isAfter(bookings.get(i - 1).getEndDate()),
+                        "double booking for car " + bookings.get(i).getCar().getId());
+            }
+        }
+
+        // Rollups maintained by the concurrent writers must match a full scan, also after status changes
+        byCar.values().stream().limit(5).forEach(bookings -> bookingService.cancelBooking(bookings.get(0).getId()));
+        assertTrue(bookingRollupService.verify(base, base.plusDays(70)));
+        assertTrue(bookingRollupService.verify(base.plusDays(10), base.plusDays(20)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.CarRepository;
+import com.drivesmart.repository.UserRepository;
+
+// Bookings sit in a far-future year of their own, so the export holds only the rows made here
+@SpringBootTest
+class BookingExportServiceTest {
+
+    @Autowired
+    private BookingExportService exportService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void textIsQuotedAndFormulasAreDefused() throws Exception {
+        User customer = userRepository.save(new User("export-quote@export.drivesmart.com", "secret-password",
+                "Doe, \"JJ\"", "+1000000000", UserRole.CUSTOMER));
+        Car formula = carRepository.save(new Car("=HYPERLINK(\"x\")", "@SUM(A1)", "-EXP-QUOTE-1", 2022, "Black", 10.0));
+        Car multiline = carRepository.save(new Car("Multi\r\nLine", "+Plus", "EXP-QUOTE-2", 2022, "Black", 10.0));
+        Booking first = book(customer, formula, LocalDate.of(2170, 3, 1), LocalDate.of(2170, 3, 3), 123.456);
+        Booking second = book(customer, multiline, LocalDate.of(2170, 3, 2), LocalDate.of(2170, 3, 2), 7.0);
+
+        StringWriter out = new StringWriter();
+        long rows = exportService.exportCsv(LocalDate.of(2170, 3, 1), LocalDate.of(2170, 3, 31), out);
+
+        assertEquals(2, rows);
+        String[] lines = out.toString().split("\n", 2);
+        assertEquals("booking_id,created_at,start_date,end_date,status,total_price,"
+                + "user_id,user_email,user_name,car_id,license_plate,brand,model", lines[0]);
+        String body = lines[1];
+        assertTrue(body.startsWith(first.getId() + ","), body);
+        assertTrue(body.contains(",2170-03-01,2170-03-03,CONFIRMED,123.46," + customer.getId()
+                + ",export-quote@export.drivesmart.com,\"Doe, \"\"JJ\"\"\"," + formula.getId()
+                + ",\"'-EXP-QUOTE-1\",\"'=HYPERLINK(\"\"x\"\")\",\"'@SUM(A1)\"\n" + second.getId() + ","), body);
+        assertTrue(body.endsWith(",2170-03-02,2170-03-02,CONFIRMED,7.00," + customer.getId()
+                + ",export-quote@export.drivesmart.com,\"Doe, \"\"JJ\"\"\"," + multiline.getId()
+                + ",EXP-QUOTE-2,\"Multi\r\nLine\",\"'+Plus\"\n"), body);
+    }
+
+    @Test
+    void onlyBookingsOverlappingTheRangeAreExported() throws Exception {
+        User customer = userRepository.save(new User("export-range@export.drivesmart.com", "secret-password",
+                "Range Tester", "+1000000000", UserRole.CUSTOMER));
+        Car car = carRepository.save(new Car("Export", "Range", "EXP-RANGE-1", 2022, "Black", 10.0));
+        book(customer, car, LocalDate.of(2171, 1, 1), LocalDate.of(2171, 1, 4), 40.0);
+        Booking overlapping = book(customer, car, LocalDate.of(2171, 1, 5), LocalDate.of(2171, 1, 12), 80.0);
+        book(customer, car, LocalDate.of(2171, 1, 20), LocalDate.of(2171, 1, 22), 30.0);
+
+        StringWriter out = new StringWriter();
+        long rows = exportService.exportCsv(LocalDate.of(2171, 1, 10), LocalDate.of(2171, 1, 15), out);
+
+        assertEquals(1, rows);
+        assertTrue(out.toString().split("\n")[1].startsWith(overlapping.getId() + ","));
+    }
+
+    private Booking book(User customer, Car car, LocalDate start, LocalDate end, double price) {
+        Booking booking = new Booking(customer, car, start, end, price);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return bookingRepository.save(booking);
+    }
+}
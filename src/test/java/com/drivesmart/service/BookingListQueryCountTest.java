@@ -0,0 +1,78 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.drivesmart.dto.RecentBooking;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.CarRepository;
+import com.drivesmart.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+class BookingListQueryCountTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void statementCountDoesNotGrowWithTheList() {
+        LocalDate start = LocalDate.now().plusDays(30);
+        addBookings("small", PAGE_SIZE + 1, start);
+        long small = statementsForFirstPage();
+
+        // Every booking on the page now has its own user and car
+        addBookings("large", 10 * PAGE_SIZE, start);
+        long large = statementsForFirstPage();
+
+        // The page select and the count select, with no per-user or per-car lookups
+        assertEquals(2, small);
+        assertEquals(small, large);
+    }
+
+    private long statementsForFirstPage() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean enabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        long before = statistics.getPrepareStatementCount();
+        Page<RecentBooking> page = bookingService.getBookingPage(null, null,
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt", "id")));
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        long statements = statistics.getPrepareStatementCount() - before;
+        statistics.setStatisticsEnabled(enabled);
+        return statements;
+    }
+
+    private void addBookings(String prefix, int count, LocalDate start) {
+        for (int i = 0; i < count; i++) {
+            User customer = userRepository.save(new User(prefix + i + "@list.drivesmart.com", "secret-password",
+                    "List Tester " + i, "+1000000000", UserRole.CUSTOMER));
+            Car car = carRepository.save(new Car("Brand" + i, "Model", "LIST-" + prefix + "-" + i, 2022, "Black", 50.0));
+            bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(2));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.CarRepository;
+import com.drivesmart.service.BookingRollupService.StatusTotals;
+
+// Each test books in a far-future year of its own, so verify() sees only that test's bookings
+@SpringBootTest
+class BookingRollupServiceTest {
+
+    @Autowired
+    private BookingRollupService rollupService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Test
+    void bookingsRunningPastTheHorizonAreNotCounted() {
+        int maxDays = rollupService.getMaxBookingDays();
+        User customer = customer("horizon");
+        LocalDate start = LocalDate.of(2160, 1, 1);
+        LocalDate end = start.plusDays(2);
+        Booking inside = bookingService.createBooking(customer.getId(), car("ROLL-HOR-1").getId(), start, end);
+        // Starts after the range and ends past end + max-days - 1, where the rollup sums stop
+        bookingService.createBooking(customer.getId(), car("ROLL-HOR-2").getId(),
+                end.plusDays(10), end.plusDays(10 + maxDays - 1));
+
+        Map<BookingStatus, StatusTotals> totals = rollupService.totalsOverlapping(start, end);
+
+        assertEquals(Map.of(BookingStatus.CONFIRMED, new StatusTotals(1, inside.getTotalPrice())), totals);
+        assertTrue(rollupService.verify(start, end));
+        assertTrue(rollupService.verify(end.plusDays(5), end.plusDays(40)));
+    }
+
+    @Test
+    void firstStatusOfADayGetsItsRowsBeforeTheTransaction() {
+        User customer = customer("first-status");
+        LocalDate start = LocalDate.of(2161, 3, 1);
+        Booking booking = bookingService.createBooking(customer.getId(), car("ROLL-FIRST-1").getId(),
+                start, start.plusDays(3));
+
+        bookingService.cancelBooking(booking.getId());
+        bookingService.updateBookingStatus(booking.getId(), BookingStatus.COMPLETED);
+
+        Map<BookingStatus, StatusTotals> totals = rollupService.totalsOverlapping(start, start.plusDays(3));
+        assertEquals(Map.of(BookingStatus.COMPLETED, new StatusTotals(1, booking.getTotalPrice())), totals);
+        assertTrue(rollupService.verify(start.minusDays(1), start.plusDays(10)));
+    }
+
+    @Test
+    void bookingsLongerThanTheMaximumAreRejected() {
+        User customer = customer("too-long");
+        Car car = car("ROLL-LONG-1");
+        LocalDate start = LocalDate.of(2162, 1, 1);
+        int maxDays = rollupService.getMaxBookingDays();
+
+        assertThrows(RuntimeException.class,
+                () -> bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(maxDays)));
+        Booking longest = bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(maxDays - 1));
+        assertEquals(maxDays * car.getPricePerDay(), longest.getTotalPrice());
+        assertTrue(rollupService.verify(start.plusDays(maxDays - 1), start.plusDays(maxDays - 1)));
+    }
+
+    private User customer(String name) {
+        return userService.saveUser(new User(name + "@rollup.drivesmart.com", "secret-password",
+                "Rollup " + name, "+1000000000", UserRole.CUSTOMER));
+    }
+
+    private Car car(String plate) {
+        return carRepository.save(new Car("RollupTest", "Model", plate, 2022, "Black", 10.0));
+    }
+}
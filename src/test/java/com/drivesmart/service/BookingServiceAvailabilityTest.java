@@ -0,0 +1,155 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.CarRepository;
+
+@SpringBootTest
+class BookingServiceAvailabilityTest {
+
+    private static final LocalDate START = LocalDate.of(2180, 5, 1);
+    private static final LocalDate END = LocalDate.of(2180, 5, 3);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void brandWildcardsMatchOnlyThemselves() {
+        Car percent = car("Avl100%Brand", "AVL-LIKE-1");
+        Car underscore = car("Avl_Brand", "AVL-LIKE-2");
+        Car backslash = car("Avl\\Brand", "AVL-LIKE-3");
+        car("AvlXBrand", "AVL-LIKE-4");
+
+        assertEquals(List.of(percent.getId()), available("avl100%b"));
+        assertEquals(List.of(underscore.getId()), available("avl_b"));
+        assertEquals(List.of(backslash.getId()), available("l\\b"));
+        assertEquals(4, available("avl").size());
+    }
+
+    @Test
+    void brandIsLowerCasedIndependentlyOfTheDefaultLocale() {
+        // Stored lower-case, as H2 runs in this JVM and its LOWER() would follow the default locale too
+        Car car = car("ibizavl", "AVL-LOCALE-1");
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertEquals(List.of(car.getId()), available("IBIZAVL"));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    void reopeningACancelledBookingRechecksTheCar() {
+        User customer = customer("reopen");
+        Car car = car("AvlReopen", "AVL-REOPEN-1");
+        LocalDate start = LocalDate.of(2181, 2, 1);
+        Booking cancelled = bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(4));
+        bookingService.cancelBooking(cancelled.getId());
+        Booking taken = bookingService.createBooking(customer.getId(), car.getId(), start.plusDays(2), start.plusDays(6));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> bookingService.updateBookingStatus(cancelled.getId(), BookingStatus.CONFIRMED));
+
+        assertEquals("Car is not available for the selected dates", e.getMessage());
+        assertEquals(BookingStatus.CANCELLED, bookingRepository.findById(cancelled.getId()).orElseThrow().getStatus());
+        assertFalse(bookingService.isCarBookedOnDate(car.getId(), start));
+        bookingService.cancelBooking(taken.getId());
+        bookingService.updateBookingStatus(cancelled.getId(), BookingStatus.CONFIRMED);
+        assertTrue(bookingService.isCarBookedOnDate(car.getId(), start));
+    }
+
+    @Test
+    void concurrentReopeningsClaimTheCarOnce() throws Exception {
+        User customer = customer("reopen-race");
+        Car car = car("AvlReopenRace", "AVL-REOPEN-2");
+        LocalDate start = LocalDate.of(2182, 2, 1);
+        List<Long> cancelled = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Booking booking = bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(i % 3));
+            bookingService.cancelBooking(booking.getId());
+            cancelled.add(booking.getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(cancelled.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> reopened = new ArrayList<>();
+        try {
+            for (Long id : cancelled) {
+                reopened.add(pool.submit(() -> {
+                    go.await();
+                    try {
+                        bookingService.updateBookingStatus(id, BookingStatus.CONFIRMED);
+                        return true;
+                    } catch (RuntimeException e) {
+                        return false;
+                    }
+                }));
+            }
+            go.countDown();
+            int wins = 0;
+            for (Future<Boolean> result : reopened) {
+                wins += result.get(1, TimeUnit.MINUTES) ? 1 : 0;
+            }
+            assertEquals(1, wins);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, bookingRepository.findAll().stream()
+                .filter(b -> b.getCar().getId().equals(car.getId()) && b.getStatus() == BookingStatus.CONFIRMED)
+                .count());
+    }
+
+    // Both the paged and the keyset-paged search, which must agree
+    private List<Long> available(String brand) {
+        List<Long> paged = bookingService.findAvailableCars(START, END, brand, null, null, PageRequest.of(0, 50))
+                .map(CarSummary::id).getContent();
+        List<Long> keyset = bookingService.findAvailableCarsAfter(START, END, brand, null, null, 0, 50)
+                .stream().map(CarSummary::id).toList();
+        assertEquals(paged.stream().sorted().toList(), keyset);
+        return keyset;
+    }
+
+    private User customer(String name) {
+        return userService.saveUser(new User(name + "@availability.drivesmart.com", "secret-password",
+                "Availability " + name, "+1000000000", UserRole.CUSTOMER));
+    }
+
+    private Car car(String brand, String plate) {
+        return carRepository.save(new Car(brand, "Model", plate, 2022, "Black", 10.0));
+    }
+}
@@ -0,0 +1,66 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.entity.Car;
+import com.drivesmart.repository.CarImageBlobRepository;
+import com.drivesmart.repository.CarRepository;
+
+@SpringBootTest
+class CarImageMigrationTest {
+
+    @Autowired
+    private CarImageMigration migration;
+
+    @Autowired
+    private CarImageStore imageStore;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CarImageBlobRepository blobRepository;
+
+    @Autowired
+    private DataVersions dataVersions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void legacyImageMovesToTheFileStore() throws Exception {
+        byte[] legacy = "legacy image bytes kept in cars.image_data".getBytes(StandardCharsets.US_ASCII);
+        Long id = carRepository.save(new Car("MigrationTest", "Model", "MIGRATE-1", 2022, "Black", 10.0)).getId();
+        // Written the way uploads were stored before the file store existed
+        transactionTemplate.executeWithoutResult(tx ->
+                blobRepository.findById(id).orElseThrow().setImageData(legacy));
+        long carVersion = dataVersions.current(DataVersions.Aggregate.CAR);
+
+        migration.migrate();
+
+        String hash = carRepository.findImageHashById(id).orElseThrow();
+        Path stored = imageStore.resolve(hash);
+        assertNotNull(stored);
+        assertArrayEquals(legacy, Files.readAllBytes(stored));
+        assertNull(blobRepository.findById(id).orElseThrow().getImageData());
+        assertFalse(blobRepository.findIdsWithImageData().contains(id));
+        assertEquals(carVersion + 1, dataVersions.current(DataVersions.Aggregate.CAR));
+
+        // A second run finds nothing left to move
+        migration.migrate();
+        assertEquals(hash, carRepository.findImageHashById(id).orElseThrow());
+    }
+}
@@ -0,0 +1,113 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.drivesmart.service.CarImageVariants.Size;
+
+class CarImageVariantsTest {
+
+    @TempDir
+    Path dir;
+
+    private CarImageStore store;
+
+    @BeforeEach
+    void createStore() throws IOException {
+        store = new CarImageStore(dir.toString());
+    }
+
+    @Test
+    void wideImageIsScaledOnceAndKeptOnDisk() throws IOException {
+        String hash = store.store(png(1000, 500));
+        CarImageVariants variants = new CarImageVariants(store, 1 << 20);
+
+        CarImageVariants.Variant thumb = variants.get(hash, Size.THUMB);
+        assertNotNull(thumb);
+        BufferedImage scaled = ImageIO.read(new ByteArrayInputStream(thumb.data()));
+        assertEquals(320, scaled.getWidth());
+        assertEquals(160, scaled.getHeight());
+        assertArrayEquals(thumb.data(), variants.get(hash, Size.THUMB).data());
+        assertEquals(1L, variants.getStats().get("generated"));
+        assertEquals(1L, variants.getStats().get("hits"));
+
+        // A restart reads the stored variant instead of scaling again
+        CarImageVariants restarted = new CarImageVariants(store, 1 << 20);
+        assertArrayEquals(thumb.data(), restarted.get(hash, Size.THUMB).data());
+        assertEquals(0L, restarted.getStats().get("generated"));
+        assertNull(restarted.get(hash, Size.FULL));
+    }
+
+    @Test
+    void smallImageIsServedAsTheOriginalWithoutDecodingAgain() throws IOException {
+        String hash = store.store(png(200, 100));
+        CarImageVariants variants = new CarImageVariants(store, 1 << 20);
+
+        assertNull(variants.get(hash, Size.THUMB));
+        assertSentinel(hash, Size.THUMB);
+        assertNull(variants.get(hash, Size.THUMB));
+        assertEquals(1L, variants.getStats().get("hits"));
+
+        assertNotDecodedAgain(hash, Size.THUMB);
+    }
+
+    @Test
+    void undecodableImageIsServedAsTheOriginalWithoutDecodingAgain() throws IOException {
+        String hash = store.store("not an image at all".getBytes(StandardCharsets.US_ASCII));
+        CarImageVariants variants = new CarImageVariants(store, 1 << 20);
+
+        assertNull(variants.get(hash, Size.CARD));
+        assertSentinel(hash, Size.CARD);
+
+        assertNotDecodedAgain(hash, Size.CARD);
+    }
+
+    @Test
+    void unknownHashesAndSizesFallBackToTheOriginal() throws IOException {
+        CarImageVariants variants = new CarImageVariants(store, 1 << 20);
+
+        assertNull(variants.get("0".repeat(64), Size.THUMB));
+        assertEquals(Size.FULL, Size.parse("huge"));
+        assertEquals(Size.CARD, Size.parse(" card "));
+    }
+
+    private void assertSentinel(String hash, Size size) throws IOException {
+        Path sentinel = store.resolve(hash).resolveSibling(hash + "-" + size.getWidth());
+        assertEquals(0L, Files.size(sentinel));
+    }
+
+    // Swaps a wide image in under the hash: a fresh instance that decoded the file would scale it
+    private void assertNotDecodedAgain(String hash, Size size) throws IOException {
+        Files.write(store.resolve(hash), png(1000, 500));
+        CarImageVariants restarted = new CarImageVariants(store, 1 << 20);
+
+        assertNull(restarted.get(hash, size));
+        assertEquals(0L, restarted.getStats().get("generated"));
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            image.setRGB(x, x * height / width, 0xFF0000);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
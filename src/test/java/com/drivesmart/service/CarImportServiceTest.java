@@ -0,0 +1,152 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.drivesmart.dto.CarImportResult;
+import com.drivesmart.dto.CarSummary;
+import com.drivesmart.entity.Car;
+import com.drivesmart.repository.CarRepository;
+
+@SpringBootTest
+class CarImportServiceTest {
+
+    private static final String HEADER = "Brand,Model,License Plate,Year,Color,Price per day\r\n";
+
+    @Autowired
+    private CarImportService carImportService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Test
+    void csvQuotingLineBreaksAndByteOrderMark() {
+        CarImportResult result = importCsv("﻿" + HEADER
+                + "\"Mercedes, Benz\",\"C \"\"AMG\"\"\",csv-quote-1,2021,Black,120.5\r\n"
+                + "Volvo,\"V60\r\nCross Country\",csv-quote-2,2020,\"Red\",80\r\n"
+                + "\r\n"
+                + "Kia,Rio,csv-quote-3,2019,White,40");
+
+        assertEquals(3, result.rows());
+        assertEquals(3, result.imported());
+        assertNull(result.aborted());
+        Map<String, CarSummary> cars = carsByPlate();
+        assertEquals("Mercedes, Benz", cars.get("CSV-QUOTE-1").brand());
+        assertEquals("C \"AMG\"", cars.get("CSV-QUOTE-1").model());
+        assertEquals(120.5, cars.get("CSV-QUOTE-1").pricePerDay());
+        assertEquals("V60\r\nCross Country", cars.get("CSV-QUOTE-2").model());
+        assertEquals("Red", cars.get("CSV-QUOTE-2").color());
+        assertEquals("Kia", cars.get("CSV-QUOTE-3").brand());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnsIsAborted() {
+        CarImportResult result = importCsv("Brand,Model\nAudi,A4\n");
+
+        assertEquals(0, result.rows());
+        assertEquals(0, result.imported());
+        assertNotNull(result.aborted());
+        assertTrue(result.aborted().contains("licenseplate"), result.aborted());
+        assertTrue(result.aborted().contains("priceperday"), result.aborted());
+    }
+
+    @Test
+    void csvEndingInsideQuotesKeepsEarlierRows() {
+        CarImportResult result = importCsv(HEADER
+                + "Audi,A4,csv-open-1,2020,Grey,60\n"
+                + "Audi,\"A6,csv-open-2,2020,Grey,70\n");
+
+        assertEquals(1, result.imported());
+        assertEquals("CSV ends inside a quoted field", result.aborted());
+    }
+
+    @Test
+    void invalidRowsAreReportedAndSkipped() {
+        CarImportResult result = importCsv(HEADER
+                + "Seat,Ibiza,csv-bad-1,abc,Blue,30\n"
+                + ",Leon,csv-bad-2,2020,Blue,30\n"
+                + "Seat,Arona,csv-bad-3,2021,Blue,35\n");
+
+        assertEquals(3, result.rows());
+        assertEquals(1, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals("Year is not a number: abc", result.errors().get(0).message());
+        assertEquals(2, result.errors().get(1).row());
+        assertEquals("Brand is required", result.errors().get(1).message());
+    }
+
+    @Test
+    void duplicatePlatesAreRejected() {
+        carRepository.save(new Car("Opel", "Corsa", "DUP-EXISTING", 2018, "Green", 25.0));
+
+        CarImportResult result = importCsv(HEADER
+                + "Opel,Astra,dup-existing,2020,Green,30\n"
+                + "Opel,Insignia,dup-new,2021,Black,45\n"
+                + "Opel,Mokka,DUP-NEW,2022,White,50\n");
+
+        assertEquals(3, result.rows());
+        assertEquals(1, result.imported());
+        assertEquals(2, result.duplicates());
+        assertEquals("DUP-EXISTING", result.errors().get(0).licensePlate());
+        assertEquals("License plate already exists", result.errors().get(0).message());
+        assertEquals(3, result.errors().get(1).row());
+        assertEquals("Insignia", carsByPlate().get("DUP-NEW").model());
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() {
+        // Passes validation but not the 255-character column, so the whole chunk's insert fails
+        String tooLong = "X".repeat(300);
+        CarImportResult result = importCsv(HEADER
+                + "Fiat,Panda,retry-1,2019,Yellow,20\n"
+                + "Fiat," + tooLong + ",retry-2,2019,Yellow,20\n"
+                + "Fiat,Tipo,retry-3,2020,Yellow,25\n");
+
+        assertEquals(3, result.rows());
+        assertEquals(2, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(2, result.errors().get(0).row());
+        assertTrue(result.errors().get(0).message().startsWith("Not saved: "), result.errors().get(0).message());
+        Map<String, CarSummary> cars = carsByPlate();
+        assertTrue(cars.containsKey("RETRY-1"));
+        assertTrue(cars.containsKey("RETRY-3"));
+        assertTrue(!cars.containsKey("RETRY-2"));
+    }
+
+    @Test
+    void jsonArrayWithLooseColumnNames() {
+        CarImportResult result = carImportService.importCars(new ByteArrayInputStream(("["
+                + "{\"brand\":\"Skoda\",\"model\":\"Octavia\",\"license_plate\":\"json-1\",\"year\":2021,"
+                + "\"color\":\"Blue\",\"pricePerDay\":55.0,\"isAvailable\":false},"
+                + "{\"brand\":\"Skoda\",\"model\":null,\"License Plate\":\"json-2\",\"year\":2021,"
+                + "\"color\":\"Blue\",\"price_per_day\":55.0}"
+                + "]").getBytes(StandardCharsets.UTF_8)), CarImportService.Format.JSON);
+
+        assertEquals(2, result.rows());
+        assertEquals(1, result.imported());
+        assertEquals("Model is required", result.errors().get(0).message());
+        assertEquals(Boolean.FALSE, carsByPlate().get("JSON-1").isAvailable());
+    }
+
+    private CarImportResult importCsv(String csv) {
+        return carImportService.importCars(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                CarImportService.Format.CSV);
+    }
+
+    private Map<String, CarSummary> carsByPlate() {
+        return carRepository.findAllSummaries().stream()
+                .collect(Collectors.toMap(CarSummary::licensePlate, Function.identity()));
+    }
+}
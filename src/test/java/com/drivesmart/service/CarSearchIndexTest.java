@@ -0,0 +1,142 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.dto.CarSuggestion;
+import com.drivesmart.entity.Car;
+import com.drivesmart.repository.CarRepository;
+
+// The index is shared with the other tests in this context, so every car here carries a made-up
+// brand or plate and assertions only look at those cars
+@SpringBootTest
+class CarSearchIndexTest {
+
+    @Autowired
+    private CarSearchIndex searchIndex;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private AuditEventWriter auditEventWriter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void savedCarIsFoundByEveryField() {
+        Car car = carService.saveCar(new Car("Qorvex", "Tundra Line", "IDX-ADD-1", 2022, "Ochre", 70.0));
+
+        assertEquals(List.of(car.getId()), searchIndex.search("qorvex", 10));
+        assertEquals(List.of(car.getId()), searchIndex.search("QORVEX tundra", 10));
+        assertEquals(List.of(car.getId()), searchIndex.search("idx-add-1", 10));
+        assertEquals(List.of(car.getId()), searchIndex.search("qorvex ochre", 10));
+        assertEquals(List.of(), searchIndex.search("qorvex blue", 10));
+
+        List<CarSuggestion> suggestions = searchIndex.suggest("qorv", 10);
+        assertEquals(1, suggestions.size());
+        assertEquals("Qorvex Tundra Line", suggestions.get(0).label());
+        assertEquals("IDX-ADD-1", suggestions.get(0).licensePlate());
+    }
+
+    @Test
+    void updateReplacesTheOldTerms() {
+        Car car = carService.saveCar(new Car("Vexlund", "Arrow", "IDX-UPD-1", 2021, "Grey", 60.0));
+        assertEquals(List.of(car.getId()), searchIndex.search("vexlund arrow", 10));
+
+        car.setModel("Comet");
+        carService.saveCar(car);
+
+        assertEquals(List.of(), searchIndex.search("vexlund arrow", 10));
+        assertEquals(List.of(car.getId()), searchIndex.search("vexlund comet", 10));
+    }
+
+    @Test
+    void deletedCarIsRemoved() {
+        Car car = carService.saveCar(new Car("Drelmot", "Sparrow", "IDX-DEL-1", 2020, "Green", 50.0));
+        int size = searchIndex.size();
+        assertEquals(List.of(car.getId()), searchIndex.search("drelmot", 10));
+
+        carService.deleteCar(car.getId());
+
+        assertEquals(List.of(), searchIndex.search("drelmot", 10));
+        assertEquals(List.of(), searchIndex.search("idx-del-1", 10));
+        assertEquals(size - 1, searchIndex.size());
+        assertTrue(carService.searchCars("drelmot").isEmpty());
+    }
+
+    @Test
+    void exactAndPrefixMatchesRankFirst() {
+        Car substring = carService.saveCar(new Car("Mobrank", "Zzkrantor", "IDX-RANK-1", 2020, "White", 40.0));
+        Car wordPrefix = carService.saveCar(new Car("Mobrank", "Touring Krantor", "IDX-RANK-2", 2020, "White", 40.0));
+        Car fieldPrefix = carService.saveCar(new Car("Mobrank", "Krantor Sport", "IDX-RANK-3", 2020, "White", 40.0));
+        Car exact = carService.saveCar(new Car("Mobrank", "Krantor", "IDX-RANK-4", 2020, "White", 40.0));
+
+        assertEquals(List.of(exact.getId(), fieldPrefix.getId(), wordPrefix.getId(), substring.getId()),
+                searchIndex.search("mobrank krantor", 10));
+        assertEquals(List.of(exact.getId(), fieldPrefix.getId()), searchIndex.search("mobrank krantor", 2));
+
+        // A plate hit outweighs the same kind of hit on the model
+        Car byPlate = carService.saveCar(new Car("Mobrank", "Other", "KRANTOR", 2020, "White", 40.0));
+        assertEquals(byPlate.getId(), searchIndex.search("mobrank krantor", 10).get(0));
+    }
+
+    @Test
+    void shortTermsMatchAnySubstring() {
+        Car car = carService.saveCar(new Car("Bmw", "330i", "IDX-SHORT-1", 2023, "Blue", 90.0));
+
+        assertTrue(searchIndex.search("3", 1000).contains(car.getId()));
+        assertTrue(searchIndex.search("0i", 1000).contains(car.getId()));
+        assertTrue(searchIndex.search("bmw 30", 1000).contains(car.getId()));
+        assertTrue(searchIndex.search("t-1", 1000).contains(car.getId()));
+        assertFalse(searchIndex.search("bmw 4", 1000).contains(car.getId()));
+    }
+
+    @Test
+    void rebuildMatchesIncrementalUpdates() {
+        Car car = carService.saveCar(new Car("Pelvant", "Ridge", "IDX-REB-1", 2019, "Red", 55.0));
+        List<Long> before = searchIndex.search("pelvant", 10);
+
+        searchIndex.rebuild();
+
+        assertEquals(before, searchIndex.search("pelvant", 10));
+        assertEquals(List.of(car.getId()), before);
+        assertEquals(carRepository.count(), searchIndex.size());
+    }
+
+    @Test
+    void rolledBackSaveIsNeitherIndexedNorAudited() {
+        long audited = auditEventWriter.getStats().get("queued") + auditEventWriter.getStats().get("dropped");
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            carService.saveCar(new Car("Rolvaxe", "Undo", "IDX-ROLL-1", 2020, "Blue", 45.0));
+            tx.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), searchIndex.search("rolvaxe", 10));
+        assertEquals(audited, auditEventWriter.getStats().get("queued") + auditEventWriter.getStats().get("dropped"));
+
+        carService.saveCar(new Car("Rolvaxe", "Kept", "IDX-ROLL-2", 2020, "Blue", 45.0));
+        assertEquals(1, searchIndex.search("rolvaxe", 10).size());
+        assertEquals(audited + 1, auditEventWriter.getStats().get("queued") + auditEventWriter.getStats().get("dropped"));
+    }
+
+    @Test
+    void blankQueriesAndLimitsReturnNothing() {
+        assertEquals(List.of(), searchIndex.search("   ", 10));
+        assertEquals(List.of(), searchIndex.search(null, 10));
+        assertEquals(List.of(), searchIndex.search("a", 0));
+    }
+}
@@ -0,0 +1,103 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.CarRepository;
+
+// The counters cover the whole context, so each check compares them with a recount, which runs the
+// same queries the dashboard used before it kept counters
+@SpringBootTest
+class DashboardStatsTest {
+
+    @Autowired
+    private DashboardStats dashboardStats;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void userWritesKeepTheCountersEqualToARecount() {
+        List<Object> before = snapshot();
+
+        User customer = userService.saveUser(user("dash-customer", UserRole.CUSTOMER));
+        userService.registerUser(user("dash-registered", UserRole.CUSTOMER));
+        userService.toggleUserStatus(customer.getId());
+        customer = userService.findById(customer.getId()).orElseThrow();
+        customer.setRole(UserRole.WORKER);
+        userService.saveUser(customer);
+        userService.deleteUser(userService.saveUser(user("dash-deleted", UserRole.ADMIN)).getId());
+        transactionTemplate.executeWithoutResult(tx -> {
+            userService.saveUser(user("dash-rolled-back", UserRole.ADMIN));
+            tx.setRollbackOnly();
+        });
+
+        assertMatchesRecount();
+        assertEquals((Long) before.get(0) + 2, dashboardStats.getTotalUsers());
+        assertEquals((Long) before.get(2) + 1, dashboardStats.getInactiveUsers());
+    }
+
+    @Test
+    void bookingWritesKeepTheCountersEqualToARecount() {
+        User customer = userService.saveUser(user("dash-booker", UserRole.CUSTOMER));
+        LocalDate today = LocalDate.now();
+        long activeToday = dashboardStats.getBookingsActiveToday();
+
+        Booking current = bookingService.createBooking(customer.getId(), car("DASH-1").getId(), today, today.plusDays(1));
+        Booking cancelled = bookingService.createBooking(customer.getId(), car("DASH-2").getId(), today, today);
+        bookingService.cancelBooking(cancelled.getId());
+        Booking completed = bookingService.createBooking(customer.getId(), car("DASH-3").getId(), today, today);
+        bookingService.updateBookingStatus(completed.getId(), BookingStatus.COMPLETED);
+        transactionTemplate.executeWithoutResult(tx -> {
+            bookingService.createBooking(customer.getId(), car("DASH-4").getId(), today, today.plusDays(2));
+            bookingService.updateBookingStatus(current.getId(), BookingStatus.CANCELLED);
+            tx.setRollbackOnly();
+        });
+
+        assertMatchesRecount();
+        assertEquals(activeToday + 1, dashboardStats.getBookingsActiveToday());
+    }
+
+    private void assertMatchesRecount() {
+        List<Object> maintained = snapshot();
+        dashboardStats.reconcile();
+        assertEquals(snapshot(), maintained);
+    }
+
+    private List<Object> snapshot() {
+        return List.of(dashboardStats.getTotalUsers(), dashboardStats.getActiveUsers(),
+                dashboardStats.getInactiveUsers(), dashboardStats.getUsersByRole(),
+                dashboardStats.getBookingsByStatus(), dashboardStats.getBookingsActiveToday(),
+                dashboardStats.getMonthlyRevenue());
+    }
+
+    private static User user(String name, UserRole role) {
+        return new User(name + "@dashboard.drivesmart.com", "secret-password", "Dashboard " + name,
+                "+1000000000", role);
+    }
+
+    private Car car(String plate) {
+        return carRepository.save(new Car("DashTest", "Model", plate, 2022, "Black", 33.33));
+    }
+}
@@ -0,0 +1,191 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.drivesmart.dto.UtilizationReport;
+import com.drivesmart.dto.UtilizationReport.CarUtilization;
+import com.drivesmart.dto.UtilizationReport.Totals;
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.CarRepository;
+import com.drivesmart.repository.UserRepository;
+
+// Bookings are saved straight through the repository so one car can hold overlapping ones. Each test
+// uses its own far-future year and brand, so the other tests' bookings never fall inside its range
+@SpringBootTest
+class FleetUtilizationServiceTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Autowired
+    private FleetUtilizationService utilizationService;
+
+    @Autowired
+    private ReportCursor reportCursor;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void backToBackBookingsCountEveryDayOnce() {
+        User customer = customer("back-to-back");
+        Car car = car("UtilBackToBack", "UTIL-B2B-1");
+        book(customer, car, day(2140, 1), day(2140, 3), 30.0, BookingStatus.COMPLETED);
+        book(customer, car, day(2140, 4), day(2140, 6), 30.0, BookingStatus.CONFIRMED);
+
+        UtilizationReport report = utilizationService.report(day(2140, 1), day(2140, 10));
+
+        assertEquals(10, report.days());
+        CarUtilization row = carRow(report, car);
+        assertEquals(2, row.bookings());
+        assertEquals(6, row.occupiedDays());
+        assertEquals(4, row.idleDays());
+        assertEquals(60.0, row.occupancyPercent(), DELTA);
+        assertEquals(60.0, row.revenue(), DELTA);
+        assertEquals(6.0, row.revenuePerAvailableDay(), DELTA);
+        // The second booking starts the day after the first ends, so the car is never out twice
+        assertEquals(1, brand(report, "UtilBackToBack").peakConcurrent());
+        assertEquals(1, report.fleet().peakConcurrent());
+    }
+
+    @Test
+    void overlappingBookingsOnOneCarAreNotDoubleCounted() {
+        User customer = customer("overlap");
+        Car car = car("UtilOverlap", "UTIL-OVL-1");
+        book(customer, car, day(2141, 1), day(2141, 5), 50.0, BookingStatus.CONFIRMED);
+        book(customer, car, day(2141, 3), day(2141, 8), 60.0, BookingStatus.ACTIVE);
+        book(customer, car, day(2141, 2), day(2141, 9), 80.0, BookingStatus.CANCELLED);
+        book(customer, car, day(2141, 9), day(2141, 10), 20.0, BookingStatus.PENDING);
+
+        UtilizationReport report = utilizationService.report(day(2141, 1), day(2141, 10));
+
+        CarUtilization row = carRow(report, car);
+        assertEquals(2, row.bookings());
+        assertEquals(8, row.occupiedDays());
+        assertEquals(2, row.idleDays());
+        assertEquals(110.0, row.revenue(), DELTA);
+        Totals brand = brand(report, "UtilOverlap");
+        assertEquals(1, brand.cars());
+        assertEquals(2, brand.bookings());
+        assertEquals(8, brand.occupiedDays());
+        assertEquals(1, brand.peakConcurrent());
+    }
+
+    @Test
+    void bookingsAreClippedToTheRangeWithProratedRevenue() {
+        User customer = customer("clip");
+        Car car = car("UtilClip", "UTIL-CLIP-1");
+        // Eight days at 10 a day, four of them inside the range
+        book(customer, car, LocalDate.of(2141, 12, 28), day(2142, 4), 80.0, BookingStatus.COMPLETED);
+        // Four days at 10 a day, two of them inside the range
+        book(customer, car, day(2142, 9), day(2142, 12), 40.0, BookingStatus.CONFIRMED);
+
+        UtilizationReport report = utilizationService.report(day(2142, 1), day(2142, 10));
+
+        CarUtilization row = carRow(report, car);
+        assertEquals(2, row.bookings());
+        assertEquals(6, row.occupiedDays());
+        assertEquals(4, row.idleDays());
+        assertEquals(60.0, row.revenue(), DELTA);
+        assertEquals(6.0, row.revenuePerAvailableDay(), DELTA);
+        assertEquals(60.0, brand(report, "UtilClip").revenue(), DELTA);
+    }
+
+    @Test
+    void peakCountsCarsOutAtOnceForBrandAndFleet() {
+        User customer = customer("peak");
+        Car first = car("UtilPeak", "UTIL-PEAK-1");
+        Car second = car("UtilPeak", "UTIL-PEAK-2");
+        Car third = car("UtilPeak", "UTIL-PEAK-3");
+        Car other = car("UtilPeakOther", "UTIL-PEAK-4");
+        book(customer, first, day(2143, 1), day(2143, 5), 50.0, BookingStatus.COMPLETED);
+        book(customer, second, day(2143, 3), day(2143, 7), 50.0, BookingStatus.COMPLETED);
+        book(customer, third, day(2143, 5), day(2143, 9), 50.0, BookingStatus.CONFIRMED);
+        // Overlapping bookings on one car still put that car out only once
+        book(customer, third, day(2143, 6), day(2143, 8), 30.0, BookingStatus.CONFIRMED);
+        book(customer, other, day(2143, 2), day(2143, 2), 10.0, BookingStatus.COMPLETED);
+
+        UtilizationReport report = utilizationService.report(day(2143, 1), day(2143, 10));
+
+        Totals brand = brand(report, "UtilPeak");
+        assertEquals(3, brand.cars());
+        assertEquals(4, brand.bookings());
+        assertEquals(15, brand.occupiedDays());
+        assertEquals(3, brand.peakConcurrent());
+        assertEquals(1, brand(report, "UtilPeakOther").peakConcurrent());
+        assertEquals(3, report.fleet().peakConcurrent());
+        assertEquals(day(2143, 5), report.peakDate());
+    }
+
+    @Test
+    void reportQueriesShareOneSnapshot() throws Exception {
+        long[] counts = new long[2];
+        reportCursor.read(cursor -> {
+            counts[0] = cursor.queryForObject("SELECT COUNT(*) FROM cars", Long.class);
+            // Committed by another thread between the report's two queries
+            CompletableFuture.runAsync(() -> car("UtilSnapshot", "UTIL-SNAP-1")).join();
+            counts[1] = cursor.queryForObject("SELECT COUNT(*) FROM cars", Long.class);
+        });
+
+        assertEquals(counts[0], counts[1]);
+        assertEquals(counts[0] + 1, carRepository.count());
+    }
+
+    @Test
+    void emptyRangeHasNoPeakAndBadRangeIsRejected() {
+        UtilizationReport report = utilizationService.report(day(2199, 1), day(2199, 1));
+
+        assertEquals(1, report.days());
+        assertEquals(0, report.fleet().bookings());
+        assertEquals(0, report.fleet().peakConcurrent());
+        assertNull(report.peakDate());
+        assertThrows(IllegalArgumentException.class,
+                () -> utilizationService.report(day(2199, 2), day(2199, 1)));
+    }
+
+    private static LocalDate day(int year, int dayOfJanuary) {
+        return LocalDate.of(year, 1, dayOfJanuary);
+    }
+
+    private User customer(String name) {
+        return userRepository.save(new User(name + "@utilization.drivesmart.com", "secret-password",
+                "Utilization " + name, "+1000000000", UserRole.CUSTOMER));
+    }
+
+    private Car car(String brand, String plate) {
+        return carRepository.save(new Car(brand, "Model", plate, 2022, "Black", 10.0));
+    }
+
+    private void book(User customer, Car car, LocalDate start, LocalDate end, double price, BookingStatus status) {
+        Booking booking = new Booking(customer, car, start, end, price);
+        booking.setStatus(status);
+        bookingRepository.save(booking);
+    }
+
+    private static CarUtilization carRow(UtilizationReport report, Car car) {
+        return report.cars().stream().filter(row -> row.carId().equals(car.getId())).findFirst().orElseThrow();
+    }
+
+    private static Totals brand(UtilizationReport report, String name) {
+        return report.brands().stream().filter(totals -> totals.name().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,57 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesAreWithinOneSubBucketOfTheTrueValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.recordNanos(micros * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(10_000, snapshot.getCount());
+        assertEquals(5000.5, snapshot.getMeanMicros(), 1e-9);
+        assertEquals(10_000, snapshot.getMaxMicros());
+        for (double p : new double[] {1, 50, 90, 95, 99, 99.9}) {
+            long exact = (long) Math.ceil(10_000 * p / 100);
+            long reported = snapshot.percentile(p);
+            assertTrue(reported >= exact && reported <= exact * 17 / 16, p + ": " + reported + " for " + exact);
+        }
+        assertEquals(10_000, snapshot.percentile(100));
+    }
+
+    @Test
+    void smallValuesAreExactAndLargeOnesCappedAtTheMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros : new long[] {0, 3, 3, 7, 15}) {
+            histogram.recordNanos(micros * 1000 + 999);
+        }
+        LatencyHistogram.Snapshot small = histogram.snapshot();
+        assertEquals(0, small.percentile(20));
+        assertEquals(3, small.percentile(60));
+        assertEquals(7, small.percentile(80));
+        assertEquals(15, small.percentile(100));
+
+        histogram.recordNanos(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE / 1000, histogram.snapshot().percentile(100));
+        assertEquals(0, new LatencyHistogram().snapshot().percentile(99));
+    }
+
+    @Test
+    void everyValueFallsInTheBucketItsUpperBoundNames() {
+        for (long micros = 0; micros < 1L << 40; micros = micros < 64 ? micros + 1 : micros * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.bucketOf(micros);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(upper >= micros, micros + " above " + upper);
+            assertTrue(upper - micros <= micros / 16, micros + " far below " + upper);
+            assertEquals(bucket, LatencyHistogram.bucketOf(upper));
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(upper + 1));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.dto.RecentBooking;
+import com.drivesmart.entity.Booking;
+import com.drivesmart.entity.BookingStatus;
+import com.drivesmart.entity.Car;
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.BookingRepository;
+import com.drivesmart.repository.CarRepository;
+
+// The feed spans every booking in the context, so it is compared with the same query run fresh,
+// not with a list of this test's bookings
+@SpringBootTest
+class RecentBookingsFeedTest {
+
+    @Autowired
+    private RecentBookingsFeed feed;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void feedMatchesTheTableAfterWritesAndRollbacks() {
+        User customer = userService.saveUser(new User("feed@recent.drivesmart.com", "secret-password",
+                "Recent Feed", "+1000000000", UserRole.CUSTOMER));
+        Car car = carRepository.save(new Car("FeedTest", "Model", "FEED-1", 2022, "Black", 10.0));
+        LocalDate start = LocalDate.of(2185, 1, 1);
+        Booking first = bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(1));
+        Booking second = bookingService.createBooking(customer.getId(), car.getId(), start.plusDays(5), start.plusDays(6));
+        bookingService.cancelBooking(first.getId());
+
+        // Neither change commits, so neither may reach the feed
+        transactionTemplate.executeWithoutResult(tx -> {
+            bookingService.createBooking(customer.getId(), car.getId(), start.plusDays(10), start.plusDays(11));
+            bookingService.updateBookingStatus(second.getId(), BookingStatus.COMPLETED);
+            tx.setRollbackOnly();
+        });
+
+        assertMatchesTable(10, null, null, null);
+        assertMatchesTable(10, customer.getId(), null, null);
+        assertMatchesTable(10, null, car.getId(), null);
+        assertMatchesTable(10, null, car.getId(), BookingStatus.CANCELLED);
+        assertMatchesTable(10, null, null, BookingStatus.CONFIRMED);
+        assertEquals(List.of(second.getId(), first.getId()),
+                feed.recent(10, null, car.getId(), null).stream().map(RecentBooking::id).toList());
+        assertEquals(BookingStatus.CONFIRMED, feed.recent(1, null, car.getId(), null).get(0).status());
+        // The interval index is updated the same way
+        assertFalse(bookingService.isCarBookedOnDate(car.getId(), start.plusDays(10)));
+    }
+
+    @Test
+    void rebuildKeepsWhatIncrementalUpdatesBuilt() {
+        User customer = userService.saveUser(new User("rebuild@recent.drivesmart.com", "secret-password",
+                "Recent Rebuild", "+1000000000", UserRole.CUSTOMER));
+        Car car = carRepository.save(new Car("FeedTest", "Model", "FEED-2", 2022, "Black", 10.0));
+        LocalDate start = LocalDate.of(2186, 1, 1);
+        Booking booking = bookingService.createBooking(customer.getId(), car.getId(), start, start.plusDays(1));
+        bookingService.updateBookingStatus(booking.getId(), BookingStatus.ACTIVE);
+        List<String> before = rows(feed.recent(50));
+
+        feed.rebuild();
+
+        assertFalse(before.isEmpty());
+        assertEquals(before, rows(feed.recent(50)));
+        assertMatchesTable(50, null, null, null);
+    }
+
+    private void assertMatchesTable(int limit, Long userId, Long carId, BookingStatus status) {
+        assertEquals(rows(bookingRepository.findRecent(userId, carId, status, PageRequest.of(0, limit))),
+                rows(feed.recent(limit, userId, carId, status)));
+    }
+
+    // Timestamps are left out: the feed holds them at nanosecond precision, the database at microseconds
+    private static List<String> rows(List<RecentBooking> bookings) {
+        return bookings.stream()
+                .map(b -> b.id() + "/" + b.userId() + "/" + b.carId() + "/" + b.startDate() + "/" + b.endDate()
+                        + "/" + b.totalPrice() + "/" + b.status())
+                .toList();
+    }
+}
@@ -0,0 +1,151 @@
+package com.drivesmart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.drivesmart.entity.User;
+import com.drivesmart.entity.UserRole;
+import com.drivesmart.repository.UserRepository;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void loadOverlappingAnEvictionIsNotCached() {
+        UserCache cache = new UserCache(10, 300);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a@cache.drivesmart.com", () -> {
+            loads.incrementAndGet();
+            // A write evicts while this load is still reading the old row
+            cache.evict("a@cache.drivesmart.com");
+            return Optional.of(detached("a@cache.drivesmart.com", "Old Name"));
+        });
+        User reloaded = cache.get("a@cache.drivesmart.com", () -> {
+            loads.incrementAndGet();
+            return Optional.of(detached("a@cache.drivesmart.com", "New Name"));
+        }).orElseThrow();
+
+        assertEquals(2, loads.get());
+        assertEquals("New Name", reloaded.getFullName());
+    }
+
+    @Test
+    void entriesAreBoundedAndHandedOutAsCopies() {
+        UserCache cache = new UserCache(2, 300);
+        AtomicInteger loads = new AtomicInteger();
+        for (String email : new String[] {"1@c", "2@c", "3@c", "2@c", "3@c"}) {
+            cache.get(email, () -> {
+                loads.incrementAndGet();
+                return Optional.of(detached(email, "Name"));
+            });
+        }
+        assertEquals(3, loads.get());
+        assertEquals(2, cache.getStats().get("entries"));
+
+        cache.get("2@c", () -> Optional.empty()).orElseThrow().setFullName("Changed by caller");
+        assertEquals("Name", cache.get("2@c", () -> Optional.empty()).orElseThrow().getFullName());
+    }
+
+    @Test
+    void lookupsMatchTheTableAfterWritesAndRollbacks() {
+        User saved = userService.saveUser(new User("writes@cache.drivesmart.com", "secret-password",
+                "Before", "+1000000000", UserRole.CUSTOMER));
+        assertCachedMatchesTable(saved.getEmail());
+
+        saved.setFullName("After");
+        userService.saveUser(saved);
+        assertCachedMatchesTable(saved.getEmail());
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            User changed = userService.findById(saved.getId()).orElseThrow();
+            changed.setFullName("Rolled back");
+            userService.saveUser(changed);
+            tx.setRollbackOnly();
+        });
+        assertCachedMatchesTable(saved.getEmail());
+        assertEquals("After", userService.findByEmail(saved.getEmail()).orElseThrow().getFullName());
+    }
+
+    @Test
+    void staleRowReadBeforeCommitIsEvictedOnCommit() {
+        User saved = userService.saveUser(new User("commit@cache.drivesmart.com", "secret-password",
+                "Before", "+1000000000", UserRole.CUSTOMER));
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            User changed = userService.findById(saved.getId()).orElseThrow();
+            changed.setFullName("Committed");
+            userService.saveUser(changed);
+            userRepository.flush();
+            // Another request looks the user up before the change commits and caches the old row
+            String seen = CompletableFuture.supplyAsync(
+                    () -> userService.findByEmail(saved.getEmail()).orElseThrow().getFullName()).join();
+            assertEquals("Before", seen);
+        });
+
+        assertEquals("Committed", userService.findByEmail(saved.getEmail()).orElseThrow().getFullName());
+    }
+
+    @Test
+    void disabledAccountIsSignedOutOnItsNextRequest() throws Exception {
+        User customer = userService.saveUser(new User("lockout@cache.drivesmart.com", "secret-password",
+                "Lockout", "+1000000000", UserRole.CUSTOMER));
+        RequestPostProcessor signedIn = user(customer.getEmail()).roles("CUSTOMER");
+        // Warms the cache entry the filter reads
+        mockMvc.perform(get("/user/profile").with(signedIn)).andExpect(status().isOk());
+
+        userService.toggleUserStatus(customer.getId());
+
+        mockMvc.perform(get("/user/profile").with(signedIn))
+                .andExpect(redirectedUrl("/login?disabled=true"));
+        mockMvc.perform(get("/api/v1/cars").with(signedIn))
+                .andExpect(status().isUnauthorized());
+
+        userService.toggleUserStatus(customer.getId());
+        mockMvc.perform(get("/user/profile").with(signedIn)).andExpect(status().isOk());
+    }
+
+    private void assertCachedMatchesTable(String email) {
+        User cached = userService.findByEmail(email).orElseThrow();
+        User stored = userRepository.findByEmail(email).orElseThrow();
+        assertEquals(stored.getId(), cached.getId());
+        assertEquals(stored.getFullName(), cached.getFullName());
+        assertEquals(stored.getRole(), cached.getRole());
+        assertEquals(stored.getIsActive(), cached.getIsActive());
+        assertEquals(stored.getPassword(), cached.getPassword());
+    }
+
+    private static User detached(String email, String name) {
+        User user = new User(email, "hash", name, "+1000000000", UserRole.CUSTOMER);
+        user.setId(1L);
+        return user;
+    }
+}
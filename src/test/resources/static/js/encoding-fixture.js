@@ -0,0 +1 @@
+var encodingFixture="gzip brotli identity gzip brotli identity gzip brotli identity".split(" ");
\ No newline at end of file